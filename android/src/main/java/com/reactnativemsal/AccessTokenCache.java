@@ -0,0 +1,186 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IAuthenticationResult;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory, expiry-aware LRU cache of authentication results, keyed by account identifier,
+ * authority and canonicalized scope set. Sits in front of MSAL's own (storage backed) cache so
+ * that repeated silent requests for a still-valid token don't have to go through MSAL at all.
+ */
+public class AccessTokenCache {
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+    public static final long DEFAULT_EXPIRATION_MARGIN_MILLIS = 5 * 60 * 1000;
+
+    // MSAL adds these to every request, and they are not necessarily reflected in the scopes of
+    // the result, so they are ignored when comparing scope sets
+    private static final Set<String> RESERVED_SCOPES =
+            new TreeSet<>(Arrays.asList("openid", "profile", "offline_access"));
+
+    private final int maxEntries;
+    private final long expirationMarginMillis;
+    private final LruMap<String, Entry> entries;
+
+    public AccessTokenCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_EXPIRATION_MARGIN_MILLIS);
+    }
+
+    public AccessTokenCache(int maxEntries, long expirationMarginMillis) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.expirationMarginMillis = Math.max(0, expirationMarginMillis);
+        this.entries = new LruMap<>(this.maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Returns a cached result for the account and authority whose scopes are a superset of
+     * `scopes`, and which won't expire within the expiration margin. Returns null otherwise, and
+     * for requests that only ask for reserved scopes, as any access token would match those.
+     */
+    @Nullable
+    public synchronized IAuthenticationResult get(
+            @NonNull String accountIdentifier, @NonNull String authority, @NonNull Collection<String> scopes) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Set<String> requestedScopes = canonicalizeScopes(scopes);
+        if (requestedScopes.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+
+        // `get` also marks the entry as most recently used
+        String exactKey = makeKey(accountIdentifier, authority, requestedScopes);
+        Entry exactEntry = entries.get(exactKey);
+        if (exactEntry != null) {
+            if (isValid(exactEntry, now)) {
+                return exactEntry.result;
+            }
+            entries.remove(exactKey);
+        }
+
+        // Look for a token which was granted for a superset of the requested scopes
+        String matchingKey = null;
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.matches(accountIdentifier, authority)
+                    && entry.scopes.containsAll(requestedScopes)
+                    && isValid(entry, now)) {
+                matchingKey = mapEntry.getKey();
+                break;
+            }
+        }
+        return matchingKey != null ? entries.get(matchingKey).result : null;
+    }
+
+    public synchronized void put(
+            @NonNull String accountIdentifier,
+            @NonNull String authority,
+            @NonNull Collection<String> requestedScopes,
+            @NonNull IAuthenticationResult result) {
+        if (!isEnabled() || result.getExpiresOn() == null) {
+            return;
+        }
+
+        // The token is valid for both the scopes that were asked for and the scopes that were
+        // actually granted, which may be spelled differently (e.g. fully qualified)
+        Set<String> scopes = canonicalizeScopes(requestedScopes);
+        if (result.getScope() != null) {
+            scopes.addAll(canonicalizeScopes(Arrays.asList(result.getScope())));
+        }
+
+        Entry entry = new Entry(accountIdentifier, authority, scopes, result);
+        if (isValid(entry, System.currentTimeMillis())) {
+            entries.put(makeKey(accountIdentifier, authority, canonicalizeScopes(requestedScopes)), entry);
+        }
+    }
+
+    public synchronized void invalidate(@NonNull String accountIdentifier, @NonNull String authority) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().matches(accountIdentifier, authority)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidate(@NonNull String accountIdentifier) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().accountIdentifier.equals(accountIdentifier)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @NonNull
+    public static Set<String> canonicalizeScopes(@NonNull Collection<String> scopes) {
+        Set<String> canonicalScopes = new TreeSet<>();
+        for (String scope : scopes) {
+            if (scope == null) {
+                continue;
+            }
+            String canonicalScope = scope.trim().toLowerCase(Locale.ROOT);
+            if (!canonicalScope.isEmpty() && !RESERVED_SCOPES.contains(canonicalScope)) {
+                canonicalScopes.add(canonicalScope);
+            }
+        }
+        return canonicalScopes;
+    }
+
+    private boolean isValid(@NonNull Entry entry, long now) {
+        return entry.expiresOnMillis - expirationMarginMillis > now;
+    }
+
+    @NonNull
+    private static String makeKey(
+            @NonNull String accountIdentifier, @NonNull String authority, @NonNull Set<String> scopes) {
+        StringBuilder key = new StringBuilder()
+                .append(accountIdentifier)
+                .append('|')
+                .append(authority)
+                .append('|');
+        for (String scope : scopes) {
+            key.append(scope).append(' ');
+        }
+        return key.toString();
+    }
+
+    private static class Entry {
+        final String accountIdentifier;
+        final String authority;
+        final Set<String> scopes;
+        final IAuthenticationResult result;
+        final long expiresOnMillis;
+
+        Entry(String accountIdentifier, String authority, Set<String> scopes, IAuthenticationResult result) {
+            this.accountIdentifier = accountIdentifier;
+            this.authority = authority;
+            this.scopes = scopes;
+            this.result = result;
+            this.expiresOnMillis = result.getExpiresOn().getTime();
+        }
+
+        boolean matches(String accountIdentifier, String authority) {
+            return this.accountIdentifier.equals(accountIdentifier) && this.authority.equals(authority);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the accounts of a PCA by identifier, so that account lookups don't have to
+ * scan MSAL's persisted account store every time. The index is built lazily, and rebuilt on the
+ * next lookup after {@link #invalidate()} is called.
+ *
+ * Each rebuild is compared with the previous one, to keep a log of which accounts were added,
+ * updated or removed, which callers can read from with a change token.
+ */
+public class AccountIndex {
+    // Removals that are remembered. Change tokens older than the oldest of them need a full reset.
+    static final int MAX_REMOVALS = 256;
+
+    private final IMultipleAccountPublicClientApplication publicClientApplication;
+    private final Tracer tracer;
+    private final AtomicLong version = new AtomicLong();
+    private long indexedVersion = -1;
+    private final Map<String, IAccount> accountsByIdentifier = new HashMap<>();
+    private final List<IAccount> accounts = new ArrayList<>();
+    // Ordered by identifier, for paging
+    private final TreeMap<String, IAccount> accountsInOrder = new TreeMap<>();
+    // Identifiers of the last built index, readable without waiting for a rebuild. Null until
+    // the index is first built.
+    @Nullable
+    private volatile Set<String> knownIdentifiers = null;
+
+    // Change tokens are only valid for the index that issued them
+    private final String epoch = UUID.randomUUID().toString();
+    private long changeSequence = 0;
+    // Sequence numbers before this one can't be resolved to changes anymore
+    private long oldestResolvableSequence = 0;
+    private final Map<String, ChangeEntry> changeEntries = new HashMap<>();
+    // In order of removal
+    private final LinkedHashMap<String, Long> removedAt = new LinkedHashMap<>();
+
+    public AccountIndex(@NonNull IMultipleAccountPublicClientApplication publicClientApplication) {
+        this(publicClientApplication, new Tracer());
+    }
+
+    public AccountIndex(
+            @NonNull IMultipleAccountPublicClientApplication publicClientApplication, @NonNull Tracer tracer) {
+        this.publicClientApplication = publicClientApplication;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Marks the index as stale, e.g. because an account was added or removed.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns whether the account was in the index when it was last built. Never reads MSAL's
+     * account store, so it may be called from any thread.
+     */
+    public boolean isKnown(@NonNull String identifier) {
+        Set<String> identifiers = knownIdentifiers;
+        return identifiers != null && identifiers.contains(identifier);
+    }
+
+    /**
+     * Returns whether the index has been built at least once, i.e. whether {@link #isKnown} can
+     * tell accounts that are new apart from the others. Never reads MSAL's account store.
+     */
+    public boolean isBuilt() {
+        return knownIdentifiers != null;
+    }
+
+    @Nullable
+    public synchronized IAccount getAccount(@NonNull String identifier) throws InterruptedException, MsalException {
+        ensureIndexed();
+        if (accountsByIdentifier.containsKey(identifier)) {
+            return accountsByIdentifier.get(identifier);
+        }
+
+        // MSAL also matches accounts by other identifiers than IAccount.getId (e.g. username), so
+        // fall back to it and remember the account until the index is invalidated. Misses aren't
+        // remembered, as an account signed in by another app sharing the cache would stay unknown
+        IAccount account = publicClientApplication.getAccount(identifier);
+        if (account != null) {
+            accountsByIdentifier.put(identifier, account);
+        }
+        return account;
+    }
+
+    @NonNull
+    public synchronized List<IAccount> getAccounts() throws InterruptedException, MsalException {
+        ensureIndexed();
+        return new ArrayList<>(accounts);
+    }
+
+    /**
+     * Returns up to `limit` accounts, in order of identifier, starting after the account with
+     * `afterIdentifier`, or with the first account if it is null. As pages are delimited by
+     * identifiers, accounts added or removed between pages don't shift the remaining pages.
+     */
+    @NonNull
+    public synchronized List<IAccount> getAccountsAfter(@Nullable String afterIdentifier, int limit)
+            throws InterruptedException, MsalException {
+        ensureIndexed();
+        Map<String, IAccount> remainingAccounts = afterIdentifier != null
+                ? accountsInOrder.tailMap(afterIdentifier, false)
+                : accountsInOrder;
+        List<IAccount> page = new ArrayList<>(Math.min(limit, remainingAccounts.size()));
+        for (IAccount account : remainingAccounts.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(account);
+        }
+        return page;
+    }
+
+    /**
+     * Replaces the indexed account with the same identifier, e.g. by the account of a token
+     * response, whose id token may be newer. The replacement is recorded as an update. Does
+     * nothing if the index is stale or doesn't hold the account, as the next rebuild reads it from
+     * MSAL's account store anyway.
+     */
+    public synchronized void update(@NonNull IAccount account) {
+        String identifier = account.getId();
+        IAccount indexedAccount = accountsByIdentifier.get(identifier);
+        ChangeEntry entry = changeEntries.get(identifier);
+        if (indexedVersion != version.get() || indexedAccount == null || entry == null) {
+            return;
+        }
+        String fingerprint = makeFingerprint(account);
+        if (entry.fingerprint.equals(fingerprint)) {
+            return;
+        }
+
+        for (int i = 0; i < accounts.size(); i++) {
+            if (accounts.get(i) == indexedAccount) {
+                accounts.set(i, account);
+            }
+        }
+        // Also replaces the other identifiers the account was looked up by
+        for (Map.Entry<String, IAccount> lookup : accountsByIdentifier.entrySet()) {
+            if (lookup.getValue() == indexedAccount) {
+                lookup.setValue(account);
+            }
+        }
+        accountsInOrder.put(identifier, account);
+        entry.updatedAt = ++changeSequence;
+        entry.fingerprint = fingerprint;
+    }
+
+    /**
+     * Rebuilds the index from MSAL's account store, and returns the accounts found.
+     */
+    @NonNull
+    public synchronized List<IAccount> refresh() throws InterruptedException, MsalException {
+        invalidate();
+        return getAccounts();
+    }
+
+    /**
+     * Returns the accounts that changed since `changeToken` was issued, and a new token. If the
+     * token is null, or can't be resolved (e.g. because it is from another index), all accounts
+     * are returned as added, and {@link Changes#reset} is set.
+     */
+    @NonNull
+    public synchronized Changes getChangesSince(@Nullable String changeToken)
+            throws InterruptedException, MsalException {
+        ensureIndexed();
+
+        long since = parseChangeToken(changeToken);
+        boolean reset = since < oldestResolvableSequence || since > changeSequence;
+        Changes changes = new Changes(epoch + ":" + changeSequence, reset);
+        if (!reset && since == changeSequence) {
+            return changes;
+        }
+
+        for (IAccount account : accounts) {
+            ChangeEntry entry = changeEntries.get(account.getId());
+            if (reset || entry.addedAt > since) {
+                changes.added.add(account);
+            } else if (entry.updatedAt > since) {
+                changes.updated.add(account);
+            }
+        }
+        if (!reset) {
+            for (Map.Entry<String, Long> removal : removedAt.entrySet()) {
+                if (removal.getValue() > since) {
+                    changes.removed.add(removal.getKey());
+                }
+            }
+        }
+        return changes;
+    }
+
+    private long parseChangeToken(@Nullable String changeToken) {
+        String prefix = epoch + ":";
+        if (changeToken == null || !changeToken.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(changeToken.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Compares the freshly built index with the previous one
+    private void recordChanges(Set<String> currentIdentifiers) {
+        for (IAccount account : accounts) {
+            String fingerprint = makeFingerprint(account);
+            ChangeEntry entry = changeEntries.get(account.getId());
+            if (entry == null) {
+                long sequence = ++changeSequence;
+                changeEntries.put(account.getId(), new ChangeEntry(sequence, fingerprint));
+                removedAt.remove(account.getId());
+            } else if (!entry.fingerprint.equals(fingerprint)) {
+                entry.updatedAt = ++changeSequence;
+                entry.fingerprint = fingerprint;
+            }
+        }
+
+        Iterator<String> previousIdentifiers = changeEntries.keySet().iterator();
+        while (previousIdentifiers.hasNext()) {
+            String identifier = previousIdentifiers.next();
+            if (!currentIdentifiers.contains(identifier)) {
+                previousIdentifiers.remove();
+                removedAt.put(identifier, ++changeSequence);
+            }
+        }
+
+        Iterator<Map.Entry<String, Long>> removals = removedAt.entrySet().iterator();
+        while (removedAt.size() > MAX_REMOVALS && removals.hasNext()) {
+            oldestResolvableSequence = removals.next().getValue();
+            removals.remove();
+        }
+    }
+
+    // Changes whenever any of the fields returned to JS, or the claims in the id token, change
+    @NonNull
+    private static String makeFingerprint(@NonNull IAccount account) {
+        return account.getUsername() + "\n" + account.getTenantId() + "\n" + account.getIdToken();
+    }
+
+    private void ensureIndexed() throws InterruptedException, MsalException {
+        long currentVersion = version.get();
+        if (indexedVersion == currentVersion) {
+            return;
+        }
+
+        List<IAccount> storedAccounts;
+        try (Tracer.Section ignored = tracer.beginSection("readAccounts")) {
+            storedAccounts = publicClientApplication.getAccounts();
+        }
+        accountsByIdentifier.clear();
+        accounts.clear();
+        accountsInOrder.clear();
+        Set<String> identifiers = new HashSet<>();
+        if (storedAccounts != null) {
+            for (IAccount account : storedAccounts) {
+                accounts.add(account);
+                accountsByIdentifier.put(account.getId(), account);
+                accountsInOrder.put(account.getId(), account);
+                identifiers.add(account.getId());
+            }
+        }
+        knownIdentifiers = identifiers;
+        indexedVersion = currentVersion;
+        recordChanges(identifiers);
+    }
+
+    public static class Changes {
+        public final String changeToken;
+        public final boolean reset;
+        public final List<IAccount> added = new ArrayList<>();
+        public final List<IAccount> updated = new ArrayList<>();
+        public final List<String> removed = new ArrayList<>();
+
+        Changes(String changeToken, boolean reset) {
+            this.changeToken = changeToken;
+            this.reset = reset;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private static class ChangeEntry {
+        final long addedAt;
+        long updatedAt;
+        String fingerprint;
+
+        ChangeEntry(long addedAt, String fingerprint) {
+            this.addedAt = addedAt;
+            this.updatedAt = addedAt;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
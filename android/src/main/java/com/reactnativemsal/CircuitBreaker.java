@@ -0,0 +1,107 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-authority circuit breaker for silent token requests. After `failureThreshold` transient
+ * failures in a row, requests to the authority fail fast for `openDurationMillis`, instead of
+ * adding to the load on an endpoint that is already struggling. After that, a single request is
+ * let through as a probe: if it succeeds the circuit closes, if it fails it opens again.
+ */
+public class CircuitBreaker {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30 * 1000;
+    public static final String ERROR_CODE_CIRCUIT_OPEN = "circuit_open";
+
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final Clock clock;
+    private final Map<String, Circuit> circuits = new HashMap<>();
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MILLIS);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this(failureThreshold, openDurationMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis, @NonNull Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = Math.max(0, openDurationMillis);
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return failureThreshold > 0;
+    }
+
+    /**
+     * Whether a request to the authority may be made now. Returning true for a half-open circuit
+     * makes that request the probe, so its outcome must be recorded.
+     */
+    public synchronized boolean allowRequest(@NonNull String authority) {
+        Circuit circuit = circuits.get(authority);
+        if (circuit == null || circuit.openUntilMillis == 0) {
+            return true;
+        }
+        if (clock.currentTimeMillis() < circuit.openUntilMillis || circuit.probeInFlight) {
+            return false;
+        }
+        circuit.probeInFlight = true;
+        return true;
+    }
+
+    /**
+     * Records that the authority responded, which includes errors that aren't transient
+     */
+    public synchronized void recordSuccess(@NonNull String authority) {
+        circuits.remove(authority);
+    }
+
+    public synchronized void recordFailure(@NonNull String authority) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Circuit circuit = circuits.get(authority);
+        if (circuit == null) {
+            circuit = new Circuit();
+            circuits.put(authority, circuit);
+        }
+        circuit.consecutiveFailures++;
+        // A failed probe opens the circuit again right away
+        if (circuit.probeInFlight || circuit.consecutiveFailures >= failureThreshold) {
+            circuit.openUntilMillis = clock.currentTimeMillis() + openDurationMillis;
+        }
+        circuit.probeInFlight = false;
+    }
+
+    /**
+     * Lets another request probe the authority, after a probe failed before reaching it
+     */
+    public synchronized void releaseProbe(@NonNull String authority) {
+        Circuit circuit = circuits.get(authority);
+        if (circuit != null) {
+            circuit.probeInFlight = false;
+        }
+    }
+
+    public synchronized void reset() {
+        circuits.clear();
+    }
+
+    private static class Circuit {
+        int consecutiveFailures;
+        // 0 while the circuit is closed
+        long openUntilMillis;
+        boolean probeInFlight;
+    }
+}
@@ -0,0 +1,32 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hashes used as keys of the module's caches and registries, so they don't hold on to configs or
+ * tokens themselves.
+ */
+final class HashUtils {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private HashUtils() {}
+
+    /**
+     * The SHA-256 of the UTF-8 encoded value, as lowercase hex
+     */
+    @NonNull
+    static String sha256Hex(@NonNull String value) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8));
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,45 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the callers waiting on each in-flight request, so that concurrent identical requests
+ * can share a single call into MSAL.
+ */
+public class InFlightRequests<T> {
+    private final Map<String, List<T>> waiters = new HashMap<>();
+
+    /**
+     * Adds `waiter` to the callers waiting on the request identified by `key`.
+     * Returns true if there was no such request in flight, in which case the caller is
+     * responsible for starting it and eventually calling {@link #complete(String)}.
+     */
+    public synchronized boolean join(@NonNull String key, @NonNull T waiter) {
+        List<T> keyWaiters = waiters.get(key);
+        if (keyWaiters != null) {
+            keyWaiters.add(waiter);
+            return false;
+        }
+
+        keyWaiters = new ArrayList<>();
+        keyWaiters.add(waiter);
+        waiters.put(key, keyWaiters);
+        return true;
+    }
+
+    /**
+     * Marks the request identified by `key` as finished and returns the callers that were
+     * waiting on it, in the order they joined.
+     */
+    @NonNull
+    public synchronized List<T> complete(@NonNull String key) {
+        List<T> keyWaiters = waiters.remove(key);
+        return keyWaiters != null ? keyWaiters : Collections.<T>emptyList();
+    }
+}
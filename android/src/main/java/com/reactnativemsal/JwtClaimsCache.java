@@ -0,0 +1,116 @@
+package com.reactnativemsal;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the claims of JWTs, i.e. id tokens and access tokens, and keeps the decoded claims of
+ * recently used tokens, so that checking e.g. roles or expiry doesn't decode the same token again.
+ * Entries are keyed by a hash of the token, so the cache doesn't hold on to the tokens themselves.
+ */
+public class JwtClaimsCache {
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final LruMap<String, Map<String, Object>> entries;
+
+    public JwtClaimsCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public JwtClaimsCache(int maxEntries) {
+        this.entries = new LruMap<>(maxEntries);
+    }
+
+    /**
+     * Returns the claims of the token, decoding it only if it isn't cached yet. The returned map
+     * is unmodifiable.
+     */
+    @NonNull
+    public Map<String, Object> getClaims(@NonNull String jwt) throws JSONException, NoSuchAlgorithmException {
+        String key = HashUtils.sha256Hex(jwt);
+        synchronized (this) {
+            Map<String, Object> claims = entries.get(key);
+            if (claims != null) {
+                return claims;
+            }
+        }
+
+        // Decoded outside the lock, at worst the same token is decoded twice
+        Map<String, Object> claims = Collections.unmodifiableMap(decode(jwt));
+        synchronized (this) {
+            entries.put(key, claims);
+        }
+        return claims;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Decodes the payload of a JWT without verifying its signature, which is for the resource the
+     * token was issued for to do. JSON numbers become Integers if they fit, Doubles otherwise.
+     */
+    @NonNull
+    @VisibleForTesting
+    static Map<String, Object> decode(@NonNull String jwt) throws JSONException {
+        String[] parts = jwt.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Token is not a JWT");
+        }
+
+        byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+        return toMap(new JSONObject(new String(payload, UTF_8)));
+    }
+
+    @NonNull
+    private static Map<String, Object> toMap(@NonNull JSONObject jsonObject) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = jsonObject.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            map.put(key, toValue(jsonObject.get(key)));
+        }
+        return map;
+    }
+
+    @NonNull
+    private static List<Object> toList(@NonNull JSONArray jsonArray) throws JSONException {
+        List<Object> list = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            list.add(toValue(jsonArray.get(i)));
+        }
+        return list;
+    }
+
+    private static Object toValue(Object value) throws JSONException {
+        if (value == JSONObject.NULL) {
+            return null;
+        } else if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return toList((JSONArray) value);
+        } else if (value instanceof Number && !(value instanceof Integer)) {
+            // Longs and big numbers can't be sent over the bridge as they are
+            return ((Number) value).doubleValue();
+        }
+        return value;
+    }
+}
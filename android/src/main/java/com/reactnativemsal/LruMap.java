@@ -0,0 +1,23 @@
+package com.reactnativemsal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map of at most `maxEntries` entries, which drops the least recently used entry when a put would
+ * exceed that. Access ordered, so that iteration order is least recently used first. Not thread
+ * safe, its users synchronize on themselves.
+ */
+class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private final int maxEntries;
+
+    LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
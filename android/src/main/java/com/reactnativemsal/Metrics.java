@@ -0,0 +1,312 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records call counts, latencies and errors of the module's methods, and counters such as cache
+ * hits, so that apps can send them to their own telemetry. Latency percentiles are computed over
+ * the most recent calls of each method.
+ */
+public class Metrics {
+    public static final int DEFAULT_LATENCY_SAMPLE_COUNT = 256;
+
+    public static final String COUNTER_TOKEN_CACHE_HITS = "tokenCacheHits";
+    public static final String COUNTER_TOKEN_CACHE_MISSES = "tokenCacheMisses";
+    public static final String COUNTER_COALESCED_SILENT_REQUESTS = "coalescedSilentRequests";
+    public static final String COUNTER_TOKEN_SNAPSHOT_HITS = "tokenSnapshotHits";
+    public static final String COUNTER_TOKEN_SNAPSHOT_MISSES = "tokenSnapshotMisses";
+    public static final String COUNTER_SILENT_RETRIES = "silentRetries";
+    public static final String COUNTER_CIRCUIT_OPEN_REJECTIONS = "circuitOpenRejections";
+
+    private final int latencySampleCount;
+    private final Map<String, MethodStats> methodStats = new HashMap<>();
+    private final Map<String, Long> counters = new HashMap<>();
+    private volatile boolean enabled = true;
+
+    @Nullable
+    private ScheduledThreadPoolExecutor reportExecutor;
+    @Nullable
+    private ScheduledFuture<?> reportFuture;
+
+    public Metrics() {
+        this(DEFAULT_LATENCY_SAMPLE_COUNT);
+    }
+
+    public Metrics(int latencySampleCount) {
+        this.latencySampleCount = Math.max(1, latencySampleCount);
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns a promise which settles `promise`, and records the call to `method` when it does.
+     */
+    @NonNull
+    public Promise track(@NonNull String method, @NonNull Promise promise) {
+        if (!enabled) {
+            return promise;
+        }
+        return new MeteredPromise(this, method, promise, System.nanoTime());
+    }
+
+    public synchronized void increment(@NonNull String counter) {
+        if (!enabled) {
+            return;
+        }
+        Long value = counters.get(counter);
+        counters.put(counter, value != null ? value + 1 : 1);
+    }
+
+    public synchronized void reset() {
+        methodStats.clear();
+        counters.clear();
+    }
+
+    // `errorCode` is null if the call succeeded
+    synchronized void record(
+            @NonNull String method, long latencyNanos, @Nullable String errorCode, boolean uiRequired) {
+        MethodStats stats = methodStats.get(method);
+        if (stats == null) {
+            stats = new MethodStats(latencySampleCount);
+            methodStats.put(method, stats);
+        }
+        stats.record(latencyNanos, errorCode, uiRequired);
+    }
+
+    @NonNull
+    public synchronized WritableMap toWritableMap() {
+        WritableMap methods = Arguments.createMap();
+        for (Map.Entry<String, MethodStats> entry : methodStats.entrySet()) {
+            methods.putMap(entry.getKey(), entry.getValue().toWritableMap());
+        }
+
+        WritableMap counterMap = Arguments.createMap();
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            counterMap.putDouble(entry.getKey(), entry.getValue());
+        }
+
+        WritableMap map = Arguments.createMap();
+        map.putMap("methods", methods);
+        map.putMap("counters", counterMap);
+        return map;
+    }
+
+    /**
+     * Runs `reporter` every `intervalMillis` until {@link #stopReporting()} is called. Replaces
+     * any reporter started before.
+     */
+    public synchronized void startReporting(long intervalMillis, @NonNull Runnable reporter) {
+        stopReporting();
+        if (reportExecutor == null) {
+            reportExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "RNMSAL-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reportExecutor.setRemoveOnCancelPolicy(true);
+        }
+        reportFuture = reportExecutor.scheduleAtFixedRate(
+                reporter, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopReporting() {
+        if (reportFuture != null) {
+            reportFuture.cancel(false);
+            reportFuture = null;
+        }
+    }
+
+    public synchronized void shutdown() {
+        stopReporting();
+        if (reportExecutor != null) {
+            reportExecutor.shutdownNow();
+            reportExecutor = null;
+        }
+    }
+
+    private static class MethodStats {
+        long count;
+        long errorCount;
+        long uiRequiredCount;
+        final Map<String, Long> errorsByCode = new HashMap<>();
+        // Ring buffer of the latest latencies
+        final long[] latencySamples;
+        int latencySampleSize;
+        int nextLatencySample;
+
+        MethodStats(int latencySampleCount) {
+            latencySamples = new long[latencySampleCount];
+        }
+
+        void record(long latencyNanos, @Nullable String errorCode, boolean uiRequired) {
+            count++;
+            latencySamples[nextLatencySample] = latencyNanos;
+            nextLatencySample = (nextLatencySample + 1) % latencySamples.length;
+            latencySampleSize = Math.min(latencySampleSize + 1, latencySamples.length);
+
+            if (errorCode == null) {
+                return;
+            }
+            errorCount++;
+            if (uiRequired) {
+                uiRequiredCount++;
+            }
+            Long value = errorsByCode.get(errorCode);
+            errorsByCode.put(errorCode, value != null ? value + 1 : 1);
+        }
+
+        WritableMap toWritableMap() {
+            long[] sorted = Arrays.copyOf(latencySamples, latencySampleSize);
+            Arrays.sort(sorted);
+
+            WritableMap latency = Arguments.createMap();
+            latency.putDouble("p50", percentileMillis(sorted, 0.50));
+            latency.putDouble("p95", percentileMillis(sorted, 0.95));
+            latency.putDouble("p99", percentileMillis(sorted, 0.99));
+            latency.putDouble("max", sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0);
+
+            WritableMap errorCodes = Arguments.createMap();
+            for (Map.Entry<String, Long> entry : errorsByCode.entrySet()) {
+                errorCodes.putDouble(entry.getKey(), entry.getValue());
+            }
+
+            WritableMap map = Arguments.createMap();
+            map.putDouble("count", count);
+            map.putDouble("errorCount", errorCount);
+            map.putDouble("uiRequiredCount", uiRequiredCount);
+            map.putMap("errorsByCode", errorCodes);
+            map.putMap("latencyMs", latency);
+            return map;
+        }
+
+        // Nearest-rank percentile
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private static class MeteredPromise implements Promise {
+        private final Metrics metrics;
+        private final String method;
+        private final Promise promise;
+        private final long startNanos;
+
+        MeteredPromise(Metrics metrics, String method, Promise promise, long startNanos) {
+            this.metrics = metrics;
+            this.method = method;
+            this.promise = promise;
+            this.startNanos = startNanos;
+        }
+
+        private void recordSuccess() {
+            metrics.record(method, System.nanoTime() - startNanos, null, false);
+        }
+
+        private void recordError(@Nullable String code) {
+            metrics.record(method, System.nanoTime() - startNanos, code != null ? code : "unknown", false);
+        }
+
+        private void recordError(@Nullable Throwable throwable) {
+            if (throwable == null) {
+                recordError((String) null);
+                return;
+            }
+            // MSAL's error codes are what apps branch on, so they are more useful than class names
+            String code = throwable instanceof MsalException && ((MsalException) throwable).getErrorCode() != null
+                    ? ((MsalException) throwable).getErrorCode()
+                    : throwable.getClass().getSimpleName();
+            metrics.record(
+                    method,
+                    System.nanoTime() - startNanos,
+                    code,
+                    throwable instanceof MsalUiRequiredException);
+        }
+
+        @Override
+        public void resolve(@Nullable Object value) {
+            recordSuccess();
+            promise.resolve(value);
+        }
+
+        @Override
+        public void reject(String code, String message) {
+            recordError(code);
+            promise.reject(code, message);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable) {
+            recordError(throwable);
+            promise.reject(code, throwable);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable) {
+            recordError(throwable);
+            promise.reject(code, message, throwable);
+        }
+
+        @Override
+        public void reject(Throwable throwable) {
+            recordError(throwable);
+            promise.reject(throwable);
+        }
+
+        @Override
+        public void reject(Throwable throwable, WritableMap userInfo) {
+            recordError(throwable);
+            promise.reject(throwable, userInfo);
+        }
+
+        @Override
+        public void reject(String code, @NonNull WritableMap userInfo) {
+            recordError(code);
+            promise.reject(code, userInfo);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable, WritableMap userInfo) {
+            recordError(throwable);
+            promise.reject(code, throwable, userInfo);
+        }
+
+        @Override
+        public void reject(String code, String message, @NonNull WritableMap userInfo) {
+            recordError(code);
+            promise.reject(code, message, userInfo);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+            recordError(throwable);
+            promise.reject(code, message, throwable, userInfo);
+        }
+
+        @Override
+        @Deprecated
+        public void reject(String message) {
+            recordError((String) null);
+            promise.reject(message);
+        }
+    }
+}
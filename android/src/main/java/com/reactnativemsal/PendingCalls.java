@@ -0,0 +1,206 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deadlines and cancellation of individual calls. The promise of a watched call settles exactly
+ * once, with whichever comes first of the call's own result, its deadline passing, or a `cancel`
+ * of its request id. Whatever arrives after that, e.g. a late MSAL callback, is dropped.
+ */
+public class PendingCalls {
+    public static final String ERROR_CODE_TIMEOUT = "timeout";
+    public static final String ERROR_CODE_CANCELLED = "cancelled";
+    public static final String ERROR_CODE_DUPLICATE_REQUEST_ID = "duplicate_request_id";
+
+    // A ConcurrentMap, as Map's putIfAbsent and remove(key, value) only exist from API 24
+    private final ConcurrentMap<String, WatchedPromise> callsByRequestId = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+
+    public PendingCalls() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RNMSAL-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
+    }
+
+    /**
+     * Returns a promise which rejects with {@link #ERROR_CODE_TIMEOUT} after `timeoutMillis`, if
+     * it is positive, and which can be cancelled with `requestId`, if it isn't null. Returns
+     * `promise` itself if neither applies.
+     */
+    @NonNull
+    public Promise watch(@NonNull Promise promise, @Nullable String requestId, long timeoutMillis) {
+        if (requestId == null && timeoutMillis <= 0) {
+            return promise;
+        }
+
+        WatchedPromise call = new WatchedPromise(promise, requestId);
+        if (requestId != null && callsByRequestId.putIfAbsent(requestId, call) != null) {
+            call.rejectIfPending(
+                    ERROR_CODE_DUPLICATE_REQUEST_ID,
+                    "A call with request id " + requestId + " is already in progress");
+            return call;
+        }
+
+        if (timeoutMillis > 0) {
+            call.deadline = timer.schedule(
+                    () -> call.rejectIfPending(
+                            ERROR_CODE_TIMEOUT,
+                            "The call did not complete within " + timeoutMillis + " ms"),
+                    timeoutMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+
+    /**
+     * Rejects the pending call with the request id with {@link #ERROR_CODE_CANCELLED}. Returns
+     * whether there was such a call.
+     */
+    public boolean cancel(@NonNull String requestId) {
+        WatchedPromise call = callsByRequestId.get(requestId);
+        return call != null && call.rejectIfPending(ERROR_CODE_CANCELLED, "Request " + requestId + " was cancelled");
+    }
+
+    /**
+     * Returns whether `promise` was returned by {@link #watch} and has settled already, e.g.
+     * because its deadline passed
+     */
+    public static boolean isSettled(@NonNull Promise promise) {
+        return promise instanceof WatchedPromise && ((WatchedPromise) promise).settled.get();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private class WatchedPromise implements Promise {
+        private final Promise promise;
+        @Nullable
+        private final String requestId;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        @Nullable
+        volatile ScheduledFuture<?> deadline;
+
+        WatchedPromise(Promise promise, @Nullable String requestId) {
+            this.promise = promise;
+            this.requestId = requestId;
+        }
+
+        // Returns true for the first caller only
+        private boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> deadline = this.deadline;
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            if (requestId != null) {
+                callsByRequestId.remove(requestId, this);
+            }
+            return true;
+        }
+
+        boolean rejectIfPending(String code, String message) {
+            if (!settle()) {
+                return false;
+            }
+            promise.reject(code, message);
+            return true;
+        }
+
+        @Override
+        public void resolve(@Nullable Object value) {
+            if (settle()) {
+                promise.resolve(value);
+            }
+        }
+
+        @Override
+        public void reject(String code, String message) {
+            if (settle()) {
+                promise.reject(code, message);
+            }
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable) {
+            if (settle()) {
+                promise.reject(code, throwable);
+            }
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable) {
+            if (settle()) {
+                promise.reject(code, message, throwable);
+            }
+        }
+
+        @Override
+        public void reject(Throwable throwable) {
+            if (settle()) {
+                promise.reject(throwable);
+            }
+        }
+
+        @Override
+        public void reject(Throwable throwable, WritableMap userInfo) {
+            if (settle()) {
+                promise.reject(throwable, userInfo);
+            }
+        }
+
+        @Override
+        public void reject(String code, @NonNull WritableMap userInfo) {
+            if (settle()) {
+                promise.reject(code, userInfo);
+            }
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable, WritableMap userInfo) {
+            if (settle()) {
+                promise.reject(code, throwable, userInfo);
+            }
+        }
+
+        @Override
+        public void reject(String code, String message, @NonNull WritableMap userInfo) {
+            if (settle()) {
+                promise.reject(code, message, userInfo);
+            }
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+            if (settle()) {
+                promise.reject(code, message, throwable, userInfo);
+            }
+        }
+
+        @Override
+        @Deprecated
+        public void reject(String message) {
+            if (settle()) {
+                promise.reject(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A PCA created by `createPublicClientApplication`, and the state kept for it. Each one is
+ * addressed from JS by its handle, so that several PCAs (e.g. for a workforce tenant and a B2C
+ * tenant) can be used side by side.
+ */
+public class PublicClient {
+    private final String handle;
+    private final IMultipleAccountPublicClientApplication publicClientApplication;
+    private final AccountIndex accountIndex;
+    private final AccessTokenCache tokenCache;
+    // Scope sets to get tokens for right after an interactive sign in
+    private final List<List<String>> prefetchScopes;
+    // Whether acquired tokens are written to the persistent TokenSnapshotStore
+    private final boolean tokenSnapshotEnabled;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    @Nullable
+    private volatile TokenRefreshScheduler tokenRefreshScheduler;
+    // Accounts removed with removeAccount, until they sign in again. Tokens of calls that were
+    // already in flight for them are dropped instead of being cached.
+    private final Set<String> removedAccounts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public PublicClient(
+            @NonNull String handle,
+            @NonNull IMultipleAccountPublicClientApplication publicClientApplication,
+            @NonNull AccessTokenCache tokenCache,
+            @NonNull List<List<String>> prefetchScopes,
+            boolean tokenSnapshotEnabled,
+            @NonNull RetryPolicy retryPolicy,
+            @NonNull CircuitBreaker circuitBreaker,
+            @NonNull Tracer tracer) {
+        this.handle = handle;
+        this.publicClientApplication = publicClientApplication;
+        this.accountIndex = new AccountIndex(publicClientApplication, tracer);
+        this.tokenCache = tokenCache;
+        this.prefetchScopes = Collections.unmodifiableList(prefetchScopes);
+        this.tokenSnapshotEnabled = tokenSnapshotEnabled;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @NonNull
+    public String getHandle() {
+        return handle;
+    }
+
+    @NonNull
+    public IMultipleAccountPublicClientApplication getPublicClientApplication() {
+        return publicClientApplication;
+    }
+
+    @NonNull
+    public AccountIndex getAccountIndex() {
+        return accountIndex;
+    }
+
+    @NonNull
+    public AccessTokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    @NonNull
+    public List<List<String>> getPrefetchScopes() {
+        return prefetchScopes;
+    }
+
+    public boolean isTokenSnapshotEnabled() {
+        return tokenSnapshotEnabled;
+    }
+
+    @NonNull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @NonNull
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Nullable
+    public TokenRefreshScheduler getTokenRefreshScheduler() {
+        return tokenRefreshScheduler;
+    }
+
+    public void setTokenRefreshScheduler(@Nullable TokenRefreshScheduler tokenRefreshScheduler) {
+        this.tokenRefreshScheduler = tokenRefreshScheduler;
+    }
+
+    public void markAccountRemoved(@NonNull String accountIdentifier) {
+        removedAccounts.add(accountIdentifier);
+    }
+
+    public void unmarkAccountRemoved(@NonNull String accountIdentifier) {
+        removedAccounts.remove(accountIdentifier);
+    }
+
+    public boolean isAccountRemoved(@NonNull String accountIdentifier) {
+        return removedAccounts.contains(accountIdentifier);
+    }
+
+    @NonNull
+    public String getDefaultAuthority() {
+        return publicClientApplication
+                .getConfiguration()
+                .getDefaultAuthority()
+                .getAuthorityURL()
+                .toString();
+    }
+
+    /**
+     * Stops background work and drops the cached tokens. The PCA itself is released from
+     * {@link PublicClientApplicationRegistry} by the module, which keeps it while other clients
+     * use it.
+     */
+    public void dispose() {
+        TokenRefreshScheduler scheduler = tokenRefreshScheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        tokenCache.clear();
+    }
+}
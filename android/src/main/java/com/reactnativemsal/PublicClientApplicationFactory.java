@@ -0,0 +1,19 @@
+package com.reactnativemsal;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+/**
+ * Creates the PCA for the configuration passed to `createPublicClientApplication`. By default the
+ * module creates MSAL's own PublicClientApplication; a factory passed to the module replaces
+ * that, e.g. to stand in for MSAL with an in-process fake in tests or in end-to-end test builds.
+ */
+public interface PublicClientApplicationFactory {
+    @NonNull
+    IMultipleAccountPublicClientApplication create(@NonNull Context context, @NonNull ReadableMap config)
+            throws Exception;
+}
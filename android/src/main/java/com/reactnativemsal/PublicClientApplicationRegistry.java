@@ -0,0 +1,104 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+import org.json.JSONObject;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Process-wide registry of the PCAs created by the module, keyed by a hash of their canonical
+ * configuration. Lets identical configs (e.g. after a JS bundle reload, or a second `init()`) reuse
+ * the PCA that was already created, instead of paying for its construction again.
+ *
+ * Each entry counts the clients using its PCA, and is removed once the last of them is disposed.
+ * Clients of a module that is torn down, e.g. for a JS bundle reload, are only detached, so that
+ * the reloaded bundle gets the same PCA back.
+ */
+public class PublicClientApplicationRegistry {
+    // The keys of the configuration passed from JS which affect how the PCA is created
+    private static final String[] PCA_CONFIG_KEYS = {"auth", "androidConfigOptions", "androidConfigResource"};
+
+    private static final Map<String, Entry> entries = new HashMap<>();
+
+    public interface Factory {
+        @NonNull
+        IMultipleAccountPublicClientApplication create() throws Exception;
+    }
+
+    @NonNull
+    public static synchronized IMultipleAccountPublicClientApplication getOrCreate(
+            @NonNull String configKey, @NonNull Factory factory) throws Exception {
+        Entry entry = entries.get(configKey);
+        if (entry == null) {
+            entry = new Entry(factory.create());
+            entries.put(configKey, entry);
+        }
+        entry.clientCount++;
+        return entry.publicClientApplication;
+    }
+
+    /**
+     * Called when a client using the PCA is disposed. Removes its entry if no other client uses it,
+     * so that the PCA can be garbage collected. Does nothing for PCAs that aren't registered.
+     */
+    public static synchronized void release(@NonNull IMultipleAccountPublicClientApplication publicClientApplication) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.publicClientApplication == publicClientApplication) {
+                if (--entry.clientCount <= 0) {
+                    iterator.remove();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called when a client using the PCA goes away with its module. Unlike {@link #release}, the
+     * entry is kept even if no other client uses it, for the module created after a JS reload.
+     */
+    public static synchronized void detach(@NonNull IMultipleAccountPublicClientApplication publicClientApplication) {
+        for (Entry entry : entries.values()) {
+            if (entry.publicClientApplication == publicClientApplication) {
+                entry.clientCount = Math.max(0, entry.clientCount - 1);
+                return;
+            }
+        }
+    }
+
+    @NonNull
+    public static String makeConfigKey(@NonNull ReadableMap params) throws NoSuchAlgorithmException {
+        StringBuilder canonicalConfig = new StringBuilder();
+        for (String key : PCA_CONFIG_KEYS) {
+            canonicalConfig.append(key).append('=');
+            if (!params.hasKey(key) || params.isNull(key)) {
+                canonicalConfig.append("null");
+            } else if (params.getType(key) == ReadableType.String) {
+                canonicalConfig.append(JSONObject.quote(params.getString(key)));
+            } else {
+                ReadableMapUtils.appendCanonicalJson(canonicalConfig, params.getMap(key));
+            }
+            canonicalConfig.append('\n');
+        }
+
+        return HashUtils.sha256Hex(canonicalConfig.toString());
+    }
+
+    private static class Entry {
+        final IMultipleAccountPublicClientApplication publicClientApplication;
+        int clientCount;
+
+        Entry(IMultipleAccountPublicClientApplication publicClientApplication) {
+            this.publicClientApplication = publicClientApplication;
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.reactnativemsal;
 
+import android.content.Context;
+import android.content.SharedPreferences;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.Signature;
+import android.content.pm.SigningInfo;
 import android.net.Uri;
+import android.os.Build;
 import android.util.Base64;
 import android.util.Log;
 import android.util.Pair;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.PromiseImpl;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -20,6 +27,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.microsoft.identity.client.AcquireTokenParameters;
 import com.microsoft.identity.client.AcquireTokenSilentParameters;
 import com.microsoft.identity.client.AuthenticationCallback;
@@ -30,7 +38,10 @@ import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
 import com.microsoft.identity.client.Prompt;
 import com.microsoft.identity.client.PublicClientApplication;
 import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -40,25 +51,114 @@ import java.io.File;
 import java.io.FileWriter;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.reactnativemsal.ReadableMapUtils.getStringOrDefault;
 import static com.reactnativemsal.ReadableMapUtils.getStringOrThrow;
 
-public class RNMSALModule extends ReactContextBaseJavaModule {
+public class RNMSALModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
     private static final String AUTHORITY_TYPE_B2C = "B2C";
     private static final String AUTHORITY_TYPE_AAD = "AAD";
 
     private static final Pattern aadAuthorityPattern = Pattern.compile("https://login\\.microsoftonline\\.com/([^/]+)");
     private static final Pattern b2cAuthorityPattern = Pattern.compile("https://([^/]+)/tfp/([^/]+)/.+");
 
-    private IMultipleAccountPublicClientApplication publicClientApplication;
+    private static final String SHARED_PREFERENCES_NAME = "com.reactnativemsal";
+    private static final String REDIRECT_URI_PREFERENCE_KEY = "redirect_uri";
+    private static final String REDIRECT_URI_CACHE_KEY_PREFERENCE_KEY = "redirect_uri_cache_key";
+
+    public static final int DEFAULT_EXECUTOR_THREAD_COUNT = 2;
+
+    public static final String METRICS_EVENT_NAME = "RNMSALMetrics";
+    public static final String ACCOUNTS_CHUNK_EVENT_NAME = "RNMSALAccountsChunk";
+    public static final String TOKEN_EVENT_NAME = "RNMSALTokenEvent";
+    public static final String TOKEN_EVENT_TOKEN_REFRESHED = "tokenRefreshed";
+    public static final String TOKEN_EVENT_REFRESH_FAILED = "refreshFailed";
+    public static final String TOKEN_EVENT_ACCOUNT_ADDED = "accountAdded";
+    public static final String TOKEN_EVENT_ACCOUNT_REMOVED = "accountRemoved";
+
+    // Token events carry what's needed to use the new token, but not e.g. the account's claims
+    private static final ResultFields TOKEN_EVENT_RESULT_FIELDS =
+            ResultFields.of("accessToken", "expiresOn", "scopes", "tenantId", "account");
+
+    // Clients by handle. Calls without a handle go to the most recently created client
+    private final Map<String, PublicClient> clients = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile PublicClient defaultClient;
+    private final AtomicInteger lastClientHandle = new AtomicInteger();
+    private final InFlightRequests<WaitingPromise> inFlightSilentRequests = new InFlightRequests<>();
+    private final Metrics metrics = new Metrics();
+    private final Tracer tracer = new Tracer();
+    // Listeners JS counted with addListener, by event name. Events without listeners aren't built.
+    private final Map<String, Integer> listenerCounts = new HashMap<>();
+
+    // Calls made while the client they are for is still being created
+    private final ReadinessGate readinessGate;
+    // Deadlines and cancellation ids of token acquisition calls
+    private final PendingCalls pendingCalls = new PendingCalls();
+    // Keyed by token hash, so it can be shared by all clients
+    private final JwtClaimsCache jwtClaimsCache = new JwtClaimsCache();
+    // Shared by all clients, since it is read before any client exists
+    private final TokenSnapshotStore tokenSnapshotStore;
+
+    // Runs the MSAL calls which block on storage or I/O
+    private final ExecutorService executor;
+    // Delays retries of silent requests that failed transiently
+    private final ScheduledExecutorService retryExecutor = makeRetryExecutor();
+    private final boolean ownsExecutor;
+    // Null to create MSAL's own PCAs, shared through the PublicClientApplicationRegistry
+    @Nullable
+    private final PublicClientApplicationFactory publicClientApplicationFactory;
 
     public RNMSALModule(ReactApplicationContext reactContext) {
+        this(reactContext, null);
+    }
+
+    public RNMSALModule(ReactApplicationContext reactContext, @Nullable ExecutorService executor) {
+        this(reactContext, executor, null);
+    }
+
+    public RNMSALModule(
+            ReactApplicationContext reactContext,
+            @Nullable ExecutorService executor,
+            @Nullable PublicClientApplicationFactory publicClientApplicationFactory) {
         super(reactContext);
+        this.ownsExecutor = executor == null;
+        this.publicClientApplicationFactory = publicClientApplicationFactory;
+        this.executor = executor != null ? executor : makeDefaultExecutor(DEFAULT_EXECUTOR_THREAD_COUNT);
+        this.tokenSnapshotStore = new TokenSnapshotStore(reactContext);
+        this.readinessGate = new ReadinessGate(reactContext::runOnNativeModulesQueueThread);
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    @NonNull
+    public static ExecutorService makeDefaultExecutor(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "RNMSAL-" + threadNumber.incrementAndGet()));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @NonNull
@@ -67,74 +167,497 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
         return "RNMSAL";
     }
 
-    @ReactMethod
-    public void createPublicClientApplication(ReadableMap params, Promise promise) {
-        ReactApplicationContext context = getReactApplicationContext();
-        try {
-            // We have to make a json file containing the MSAL configuration, then use that file to
-            // create the PublicClientApplication
-            // We first need to create the JSON model using the passed in parameters
-
-            JSONObject msalConfigJsonObj = params.hasKey("androidConfigOptions")
-                    ? ReadableMapUtils.toJsonObject(params.getMap("androidConfigOptions"))
-                    : new JSONObject();
+    @Override
+    public void onHostResume() {
+        for (PublicClient client : clients.values()) {
+            TokenRefreshScheduler scheduler = client.getTokenRefreshScheduler();
+            if (scheduler != null) {
+                scheduler.resume();
+            }
+        }
+    }
 
-            // Account mode. Required to be MULTIPLE for this library
-            msalConfigJsonObj.put("account_mode", "MULTIPLE");
+    @Override
+    public void onHostPause() {
+        for (PublicClient client : clients.values()) {
+            TokenRefreshScheduler scheduler = client.getTokenRefreshScheduler();
+            if (scheduler != null) {
+                scheduler.pause();
+            }
+        }
+    }
 
-            // If broker_redirect_uri_registered is not provided in androidConfigOptions,
-            // default it to false
-            if (!msalConfigJsonObj.has("broker_redirect_uri_registered")) {
-                msalConfigJsonObj.put("broker_redirect_uri_registered", false);
+    @Override
+    public void onHostDestroy() {
+        for (PublicClient client : clients.values()) {
+            TokenRefreshScheduler scheduler = client.getTokenRefreshScheduler();
+            if (scheduler != null) {
+                scheduler.pause();
             }
+        }
+    }
+
+    @Override
+    public void onCatalystInstanceDestroy() {
+        getReactApplicationContext().removeLifecycleEventListener(this);
+        for (PublicClient client : clients.values()) {
+            client.dispose();
+            PublicClientApplicationRegistry.detach(client.getPublicClientApplication());
+        }
+        clients.clear();
+        defaultClient = null;
+        readinessGate.shutdown();
+        metrics.shutdown();
+        pendingCalls.shutdown();
+        retryExecutor.shutdownNow();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    // Every call is metered, and traced while tracing is enabled
+    private Promise track(String method, Promise promise) {
+        return track(method, promise, null);
+    }
+
+    private Promise track(String method, Promise promise, @Nullable String requestId) {
+        return tracer.trace(method, requestId, metrics.track(method, promise));
+    }
+
+    @Nullable
+    private static String readRequestId(ReadableMap params) {
+        return params.hasKey("requestId") && !params.isNull("requestId") ? params.getString("requestId") : null;
+    }
+
+    private void execute(Promise promise, Runnable runnable) {
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            promise.reject(e);
+        }
+    }
+
+    @ReactMethod
+    public void createPublicClientApplication(ReadableMap params, @Nullable String handleIn, Promise promiseIn) {
+        // Before anything else, so that creating the client is traced too
+        configureTracing(params.hasKey("metrics") ? params.getMap("metrics") : null);
+        Promise promise = track("createPublicClientApplication", promiseIn);
+        // A handle chosen by JS lets it make calls for the client before it is created. Those
+        // calls are held until it is, since this runs before them on the native modules thread
+        String handle = handleIn != null ? handleIn : String.valueOf(lastClientHandle.incrementAndGet());
+        if (clients.containsKey(handle) || !readinessGate.begin(handle)) {
+            promise.reject(new IllegalArgumentException(
+                    "A PublicClientApplication with handle \"" + handle + "\" already exists"));
+            return;
+        }
 
-            ReadableMap auth = params.getMap("auth");
+        // The PCA outlives this module, so it must not hold on to the React context
+        Context context = getReactApplicationContext().getApplicationContext();
+        // Building the config involves file I/O and hashing the package signature, and MSAL reads
+        // its storage while creating the PCA, so none of it runs on the native modules thread
+        execute(promise, () -> {
+            IMultipleAccountPublicClientApplication publicClientApplication = null;
+            try {
+                // Identical configs (e.g. after a JS reload) share the PCA that was already created.
+                // PCAs of a custom factory aren't shared, their lifetime is up to the factory.
+                publicClientApplication = publicClientApplicationFactory != null
+                        ? publicClientApplicationFactory.create(context, params)
+                        : PublicClientApplicationRegistry.getOrCreate(
+                                PublicClientApplicationRegistry.makeConfigKey(params),
+                                () -> buildPublicClientApplication(context, params));
+
+                PublicClient client = new PublicClient(
+                        handle,
+                        publicClientApplication,
+                        makeAccessTokenCache(params.hasKey("tokenCache") ? params.getMap("tokenCache") : null),
+                        readScopeSets(params.hasKey("prefetchScopes") ? params.getArray("prefetchScopes") : null),
+                        isTokenSnapshotEnabled(params.hasKey("tokenSnapshot") ? params.getMap("tokenSnapshot") : null),
+                        makeRetryPolicy(params.hasKey("retry") ? params.getMap("retry") : null),
+                        makeCircuitBreaker(params.hasKey("circuitBreaker") ? params.getMap("circuitBreaker") : null),
+                        tracer);
+                client.setTokenRefreshScheduler(
+                        makeTokenRefreshScheduler(client, params.hasKey("tokenRefresh") ? params.getMap("tokenRefresh") : null));
+                clients.put(client.getHandle(), client);
+                defaultClient = client;
+
+                configureMetrics(params.hasKey("metrics") ? params.getMap("metrics") : null);
+                readinessGate.release(handle);
+                promise.resolve(handle);
+            } catch (Exception e) {
+                // No client uses the PCA after all
+                if (publicClientApplication != null) {
+                    PublicClientApplicationRegistry.release(publicClientApplication);
+                }
+                readinessGate.fail(handle, e);
+                promise.reject(e);
+            }
+        });
+    }
 
-            // Authority
-            String authority = getStringOrDefault(auth, "authority", "https://login.microsoftonline.com/common");
-            msalConfigJsonObj.put("authority", authority);
+    @ReactMethod
+    public void dispose(@Nullable String handle, Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> dispose(handle, promiseIn))) {
+            return;
+        }
+        Promise promise = track("dispose", promiseIn);
+        PublicClient client = handle != null ? clients.remove(handle) : null;
+        if (client != null) {
+            if (defaultClient == client) {
+                defaultClient = null;
+            }
+            client.dispose();
+            PublicClientApplicationRegistry.release(client.getPublicClientApplication());
+        }
+        promise.resolve(client != null);
+    }
 
-            // Client id
-            msalConfigJsonObj.put("client_id", getStringOrThrow(auth, "clientId"));
+    // Clients created with identical configs share a PCA, and so its accounts
+    private List<PublicClient> getClientsSharingPublicClientApplication(PublicClient client) {
+        List<PublicClient> sharingClients = new ArrayList<>();
+        sharingClients.add(client);
+        for (PublicClient other : clients.values()) {
+            if (other != client && other.getPublicClientApplication() == client.getPublicClientApplication()) {
+                sharingClients.add(other);
+            }
+        }
+        return sharingClients;
+    }
 
-            // Redirect URI
-            msalConfigJsonObj.put("redirect_uri", auth.hasKey("redirectUri") ? auth.getString("redirectUri") : makeRedirectUri(context).toString());
+    @NonNull
+    private PublicClient getClient(@Nullable String handle) {
+        PublicClient client = handle != null ? clients.get(handle) : defaultClient;
+        if (client == null) {
+            throw new IllegalStateException(handle != null
+                    ? "No PublicClientApplication with handle \"" + handle + "\", it may have been disposed"
+                    : "PublicClientApplication is not initialized");
+        }
+        return client;
+    }
 
-            // Authorities
-            ReadableArray knownAuthorities = auth.getArray("knownAuthorities");
-            // List WILL be instantiated and empty if `knownAuthorities` is null
-            List<String> authoritiesList = readableArrayToStringList(knownAuthorities);
-            // Make sure the `authority` makes it in the authority list
-            if (!authoritiesList.contains(authority)) {
-                authoritiesList.add(authority);
+    private IMultipleAccountPublicClientApplication buildPublicClientApplication(
+            Context context, ReadableMap params) throws Exception {
+        // A config compiled into the app at build time needs no JSON building or file writes
+        if (params.hasKey("androidConfigResource")) {
+            int configResourceId = getConfigResourceId(context, params.getString("androidConfigResource"));
+            try (Tracer.Section ignored = tracer.beginSection("createPca")) {
+                return PublicClientApplication.createMultipleAccountPublicClientApplication(context, configResourceId);
             }
-            // The authoritiesList is just a list of urls (strings), but the native android MSAL
-            // library expects an array of objects, so we have to parse the urls
-            JSONArray authoritiesJsonArr = makeAuthoritiesJsonArray(authoritiesList, authority);
-            msalConfigJsonObj.put("authorities", authoritiesJsonArr);
+        }
 
-            // Serialize the JSON config to a string
-            String serializedMsalConfig = msalConfigJsonObj.toString();
-            Log.d("RNMSALModule", serializedMsalConfig);
+        // We have to make a json file containing the MSAL configuration, then use that file to
+        // create the PublicClientApplication
+        String serializedMsalConfig;
+        try (Tracer.Section ignored = tracer.beginSection("buildConfig")) {
+            serializedMsalConfig = makeMsalConfig(context, params).toString();
+        }
+        Log.d("RNMSALModule", serializedMsalConfig);
 
-            // Create a temporary file and write the serialized config to it
-            File file = File.createTempFile("RNMSAL_msal_config", ".tmp");
+        // Create a temporary file and write the serialized config to it
+        File file;
+        try (Tracer.Section ignored = tracer.beginSection("writeConfigFile")) {
+            file = File.createTempFile("RNMSAL_msal_config", ".tmp");
             file.deleteOnExit();
             FileWriter writer = new FileWriter(file);
             writer.write(serializedMsalConfig);
             writer.close();
+        }
 
-            // Finally, create the PCA with the temporary config file we created
-            publicClientApplication =
-                    PublicClientApplication.createMultipleAccountPublicClientApplication(
-                            context, file);
-            promise.resolve(null);
-        } catch (Exception e) {
-            promise.reject(e);
+        // Finally, create the PCA with the temporary config file we created
+        try (Tracer.Section ignored = tracer.beginSection("createPca")) {
+            return PublicClientApplication.createMultipleAccountPublicClientApplication(context, file);
+        }
+    }
+
+    private JSONObject makeMsalConfig(Context context, ReadableMap params) throws Exception {
+        // We first need to create the JSON model using the passed in parameters
+        JSONObject msalConfigJsonObj = params.hasKey("androidConfigOptions")
+                ? ReadableMapUtils.toJsonObject(params.getMap("androidConfigOptions"))
+                : new JSONObject();
+
+        // Account mode. Required to be MULTIPLE for this library
+        msalConfigJsonObj.put("account_mode", "MULTIPLE");
+
+        // If broker_redirect_uri_registered is not provided in androidConfigOptions,
+        // default it to false
+        if (!msalConfigJsonObj.has("broker_redirect_uri_registered")) {
+            msalConfigJsonObj.put("broker_redirect_uri_registered", false);
+        }
+
+        ReadableMap auth = params.getMap("auth");
+
+        // Authority
+        String authority = getStringOrDefault(auth, "authority", "https://login.microsoftonline.com/common");
+        msalConfigJsonObj.put("authority", authority);
+
+        // Client id
+        msalConfigJsonObj.put("client_id", getStringOrThrow(auth, "clientId"));
+
+        // Redirect URI
+        msalConfigJsonObj.put("redirect_uri", auth.hasKey("redirectUri") ? auth.getString("redirectUri") : makeRedirectUri(context).toString());
+
+        // Authorities
+        ReadableArray knownAuthorities = auth.getArray("knownAuthorities");
+        // List WILL be instantiated and empty if `knownAuthorities` is null
+        List<String> authoritiesList = readableArrayToStringList(knownAuthorities);
+        // Make sure the `authority` makes it in the authority list
+        if (!authoritiesList.contains(authority)) {
+            authoritiesList.add(authority);
+        }
+        // The authoritiesList is just a list of urls (strings), but the native android MSAL
+        // library expects an array of objects, so we have to parse the urls
+        JSONArray authoritiesJsonArr = makeAuthoritiesJsonArray(authoritiesList, authority);
+        msalConfigJsonObj.put("authorities", authoritiesJsonArr);
+        return msalConfigJsonObj;
+    }
+
+    private int getConfigResourceId(Context context, String resourceName) {
+        // Either a fully qualified name (e.g. "com.example:raw/msal_config") or the name of a raw
+        // resource in the app's package
+        int resourceId = resourceName.contains(":")
+                ? context.getResources().getIdentifier(resourceName, null, null)
+                : context.getResources().getIdentifier(resourceName, "raw", context.getPackageName());
+        if (resourceId == 0) {
+            throw new IllegalArgumentException("Could not find MSAL config resource \"" + resourceName + "\"");
+        }
+        return resourceId;
+    }
+
+    private AccessTokenCache makeAccessTokenCache(@Nullable ReadableMap options) {
+        if (options == null) {
+            return new AccessTokenCache();
+        }
+
+        if (options.hasKey("enabled") && !options.getBoolean("enabled")) {
+            return new AccessTokenCache(0, 0);
+        }
+
+        int maxEntries = options.hasKey("maxEntries")
+                ? options.getInt("maxEntries")
+                : AccessTokenCache.DEFAULT_MAX_ENTRIES;
+        long expirationMarginMillis = options.hasKey("expirationMarginSeconds")
+                ? (long) (options.getDouble("expirationMarginSeconds") * 1000)
+                : AccessTokenCache.DEFAULT_EXPIRATION_MARGIN_MILLIS;
+        return new AccessTokenCache(maxEntries, expirationMarginMillis);
+    }
+
+    @Nullable
+    private TokenRefreshScheduler makeTokenRefreshScheduler(PublicClient client, @Nullable ReadableMap options) {
+        // Proactive refreshing is opt-in
+        if (options == null || !options.hasKey("enabled") || !options.getBoolean("enabled")) {
+            return null;
+        }
+
+        long leadTimeMillis = options.hasKey("leadTimeSeconds")
+                ? (long) (options.getDouble("leadTimeSeconds") * 1000)
+                : TokenRefreshScheduler.DEFAULT_LEAD_TIME_MILLIS;
+        long jitterMillis = options.hasKey("jitterSeconds")
+                ? (long) (options.getDouble("jitterSeconds") * 1000)
+                : TokenRefreshScheduler.DEFAULT_JITTER_MILLIS;
+        return new TokenRefreshScheduler(
+                (accountIdentifier, authority, scopes) ->
+                        acquireTokenSilent(
+                                client,
+                                accountIdentifier,
+                                authority,
+                                scopes,
+                                true,
+                                ResultFields.NONE,
+                                track("tokenRefresh", new PromiseImpl(null, null))),
+                leadTimeMillis,
+                jitterMillis);
+    }
+
+    private RetryPolicy makeRetryPolicy(@Nullable ReadableMap options) {
+        if (options == null) {
+            return new RetryPolicy();
+        }
+
+        if (options.hasKey("enabled") && !options.getBoolean("enabled")) {
+            return RetryPolicy.NONE;
+        }
+
+        int maxAttempts = options.hasKey("maxAttempts")
+                ? options.getInt("maxAttempts")
+                : RetryPolicy.DEFAULT_MAX_ATTEMPTS;
+        long baseDelayMillis = options.hasKey("baseDelayMs")
+                ? (long) options.getDouble("baseDelayMs")
+                : RetryPolicy.DEFAULT_BASE_DELAY_MILLIS;
+        long maxDelayMillis = options.hasKey("maxDelayMs")
+                ? (long) options.getDouble("maxDelayMs")
+                : RetryPolicy.DEFAULT_MAX_DELAY_MILLIS;
+        return new RetryPolicy(maxAttempts, baseDelayMillis, maxDelayMillis);
+    }
+
+    private CircuitBreaker makeCircuitBreaker(@Nullable ReadableMap options) {
+        if (options == null) {
+            return new CircuitBreaker();
+        }
+
+        if (options.hasKey("enabled") && !options.getBoolean("enabled")) {
+            return new CircuitBreaker(0, 0);
         }
+
+        int failureThreshold = options.hasKey("failureThreshold")
+                ? options.getInt("failureThreshold")
+                : CircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+        long openDurationMillis = options.hasKey("openDurationSeconds")
+                ? (long) (options.getDouble("openDurationSeconds") * 1000)
+                : CircuitBreaker.DEFAULT_OPEN_DURATION_MILLIS;
+        return new CircuitBreaker(failureThreshold, openDurationMillis);
     }
 
-    private JSONArray makeAuthoritiesJsonArray(List<String> authorityUrls, String authority) throws JSONException, IllegalArgumentException {
+    private static ScheduledExecutorService makeRetryExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RNMSAL-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private boolean isTokenSnapshotEnabled(@Nullable ReadableMap options) {
+        // Persisting tokens is opt-in
+        return options != null && options.hasKey("enabled") && options.getBoolean("enabled");
+    }
+
+    private void configureTracing(@Nullable ReadableMap options) {
+        // Tracing is opt-in, since it is only useful while profiling
+        tracer.setEnabled(options != null && options.hasKey("trace") && options.getBoolean("trace"));
+    }
+
+    private void configureMetrics(@Nullable ReadableMap options) {
+        metrics.setEnabled(options == null || !options.hasKey("enabled") || options.getBoolean("enabled"));
+
+        // Periodic metrics events are opt-in
+        long eventIntervalMillis = options != null && options.hasKey("eventIntervalSeconds")
+                ? (long) (options.getDouble("eventIntervalSeconds") * 1000)
+                : 0;
+        if (eventIntervalMillis > 0) {
+            metrics.startReporting(eventIntervalMillis, this::emitMetrics);
+        } else {
+            metrics.stopReporting();
+        }
+    }
+
+    private void emitMetrics() {
+        emit(METRICS_EVENT_NAME, metrics.toWritableMap());
+    }
+
+    private void emit(String eventName, WritableMap event) {
+        ReactApplicationContext reactContext = getReactApplicationContext();
+        if (reactContext.hasActiveCatalystInstance()) {
+            reactContext
+                    .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                    .emit(eventName, event);
+        }
+    }
+
+    // Called by JS when it subscribes to one of this module's events. NativeEventEmitter only
+    // forwards subscriptions to native modules on iOS in older React Native versions, so JS calls
+    // this itself.
+    @ReactMethod
+    public void addListener(String eventName) {
+        synchronized (listenerCounts) {
+            Integer count = listenerCounts.get(eventName);
+            listenerCounts.put(eventName, count != null ? count + 1 : 1);
+        }
+    }
+
+    // Called by JS when it unsubscribes a listener it added with addListener
+    @ReactMethod
+    public void removeListener(String eventName) {
+        synchronized (listenerCounts) {
+            Integer count = listenerCounts.get(eventName);
+            if (count == null || count <= 1) {
+                listenerCounts.remove(eventName);
+            } else {
+                listenerCounts.put(eventName, count - 1);
+            }
+        }
+    }
+
+    // Required by NativeEventEmitter of modules that emit events. It doesn't say which events the
+    // listeners were for, so listeners are counted with addListener and removeListener instead.
+    @ReactMethod
+    public void removeListeners(Integer count) {
+    }
+
+    private boolean hasListeners(String eventName) {
+        synchronized (listenerCounts) {
+            return listenerCounts.containsKey(eventName);
+        }
+    }
+
+    private void emitTokenEvent(
+            PublicClient client,
+            String type,
+            String accountIdentifier,
+            @Nullable IAuthenticationResult result,
+            @Nullable Exception error) {
+        if (!hasListeners(TOKEN_EVENT_NAME)) {
+            return;
+        }
+
+        WritableMap event = Arguments.createMap();
+        event.putString("type", type);
+        event.putString("handle", client.getHandle());
+        event.putString("accountIdentifier", accountIdentifier);
+        if (result != null) {
+            event.putMap("result", resultToMap(result, TOKEN_EVENT_RESULT_FIELDS));
+        }
+        if (error != null) {
+            event.putMap("error", makeTokenEventError(error));
+        }
+        emit(TOKEN_EVENT_NAME, event);
+    }
+
+    private static WritableMap makeTokenEventError(@NonNull Exception error) {
+        WritableMap map = Arguments.createMap();
+        map.putString("code", getErrorCode(error));
+        map.putString("message", error.getMessage());
+        map.putString("classification", classifyError(error));
+        return map;
+    }
+
+    private static String getErrorCode(@NonNull Throwable error) {
+        return error instanceof MsalException
+                ? ((MsalException) error).getErrorCode()
+                : error.getClass().getSimpleName();
+    }
+
+    /**
+     * Classifies a token error by what the app should do about it: `uiRequired` needs an
+     * interactive sign in, `network` can be retried when the device is online again, `service`
+     * and `client` are errors reported by the identity service and MSAL respectively.
+     */
+    private static String classifyError(@NonNull Exception error) {
+        if (error instanceof MsalUiRequiredException) {
+            return "uiRequired";
+        }
+        if (error instanceof MsalServiceException) {
+            return "service";
+        }
+        if (error instanceof MsalClientException) {
+            // Network errors are the ones retried by the RetryPolicy too
+            return RetryPolicy.isNetworkError(error) ? "network" : "client";
+        }
+        return "unknown";
+    }
+
+    @ReactMethod
+    public void getMetrics(Promise promise) {
+        promise.resolve(metrics.toWritableMap());
+    }
+
+    @ReactMethod
+    public void resetMetrics(Promise promise) {
+        metrics.reset();
+        promise.resolve(null);
+    }
+
+    @VisibleForTesting
+    static JSONArray makeAuthoritiesJsonArray(List<String> authorityUrls, String authority) throws JSONException, IllegalArgumentException {
         JSONArray authoritiesJsonArr = new JSONArray();
         boolean foundDefaultAuthority = false;
 
@@ -191,31 +714,114 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
         return authoritiesJsonArr;
     }
 
-    private Uri makeRedirectUri(ReactApplicationContext context) throws Exception {
-        try {
+    private Uri makeRedirectUri(Context context) throws Exception {
+        try (Tracer.Section ignored = tracer.beginSection("makeRedirectUri")) {
             final String packageName = context.getPackageName();
-            final PackageInfo info = context.getPackageManager().getPackageInfo(packageName, PackageManager.GET_SIGNATURES);
-            if (info.signatures.length != 1) {
-                throw new RuntimeException("RNMSAL expected there to be exactly one signature for package " + packageName);
+            final PackageManager packageManager = context.getPackageManager();
+
+            // Hashing the signing certificate is comparatively expensive, and its result can only
+            // change when the app is updated, so the redirect uri is cached per package version
+            final String cacheKey = makeRedirectUriCacheKey(
+                    packageName, packageManager.getPackageInfo(packageName, 0), Build.VERSION.SDK_INT);
+            final SharedPreferences preferences =
+                    context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+            final String cachedRedirectUri = getCachedRedirectUri(preferences, cacheKey);
+            if (cachedRedirectUri != null) {
+                return Uri.parse(cachedRedirectUri);
             }
-            Signature signature = info.signatures[0];
+
+            Signature signature = getSigningCertificate(packageManager, packageName, Build.VERSION.SDK_INT);
             final MessageDigest messageDigest = MessageDigest.getInstance("SHA");
             messageDigest.update(signature.toByteArray());
             final String signatureHash = Base64.encodeToString(messageDigest.digest(), Base64.NO_WRAP);
             Log.d("RNMSALModule", signatureHash);
 
-            return new Uri.Builder().scheme("msauth")
+            Uri redirectUri = new Uri.Builder().scheme("msauth")
                     .authority(packageName)
                     .appendPath(signatureHash)
                     .build();
+            putCachedRedirectUri(preferences, cacheKey, redirectUri.toString());
+            return redirectUri;
         } catch (Exception ex) {
             throw new Exception("Could not create redirect uri from package name and signature hash", ex);
         }
     }
 
+    @VisibleForTesting
+    @SuppressWarnings("deprecation")
+    static String makeRedirectUriCacheKey(String packageName, PackageInfo packageInfo, int sdkInt) {
+        long versionCode = sdkInt >= Build.VERSION_CODES.P
+                ? packageInfo.getLongVersionCode()
+                : packageInfo.versionCode;
+        return packageName + ":" + packageInfo.lastUpdateTime + ":" + versionCode;
+    }
+
+    /**
+     * Returns the redirect uri cached for `cacheKey`, or null if it was cached for another key,
+     * i.e. for another version of the app
+     */
+    @VisibleForTesting
+    @Nullable
+    static String getCachedRedirectUri(SharedPreferences preferences, String cacheKey) {
+        final String cachedRedirectUri = preferences.getString(REDIRECT_URI_PREFERENCE_KEY, null);
+        return cachedRedirectUri != null
+                && cacheKey.equals(preferences.getString(REDIRECT_URI_CACHE_KEY_PREFERENCE_KEY, null))
+                ? cachedRedirectUri
+                : null;
+    }
+
+    @VisibleForTesting
+    static void putCachedRedirectUri(SharedPreferences preferences, String cacheKey, String redirectUri) {
+        preferences.edit()
+                .putString(REDIRECT_URI_CACHE_KEY_PREFERENCE_KEY, cacheKey)
+                .putString(REDIRECT_URI_PREFERENCE_KEY, redirectUri)
+                .apply();
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("deprecation")
+    static Signature getSigningCertificate(PackageManager packageManager, String packageName, int sdkInt)
+            throws PackageManager.NameNotFoundException {
+        Signature[] signatures;
+        if (sdkInt >= Build.VERSION_CODES.P) {
+            SigningInfo signingInfo =
+                    packageManager.getPackageInfo(packageName, PackageManager.GET_SIGNING_CERTIFICATES).signingInfo;
+            if (signingInfo.hasMultipleSigners()) {
+                signatures = signingInfo.getApkContentsSigners();
+            } else {
+                // With key rotation the history holds every certificate of the lineage, oldest
+                // first. The oldest one is what GET_SIGNATURES returns, so the redirect uri
+                // doesn't depend on the API level
+                Signature[] history = signingInfo.getSigningCertificateHistory();
+                signatures = history.length > 0 ? new Signature[]{history[0]} : history;
+            }
+        } else {
+            signatures = packageManager.getPackageInfo(packageName, PackageManager.GET_SIGNATURES).signatures;
+        }
+
+        if (signatures == null || signatures.length != 1) {
+            throw new RuntimeException("RNMSAL expected there to be exactly one signature for package " + packageName);
+        }
+        return signatures[0];
+    }
+
     @ReactMethod
-    public void acquireToken(ReadableMap params, Promise promise) {
+    public void acquireToken(@Nullable String handle, ReadableMap params, Promise promiseIn) {
+        // Watched before the call may be held for init, so its deadline and cancellation cover that wait
+        Promise promise = watchCall(track("acquireToken", promiseIn, readRequestId(params)), params);
+        if (readinessGate.defer(handle, promise, () -> startAcquireToken(handle, params, promise))) {
+            return;
+        }
+        startAcquireToken(handle, params, promise);
+    }
+
+    private void startAcquireToken(@Nullable String handle, ReadableMap params, Promise promise) {
+        // Timed out or cancelled while held for init, so the user must not be asked to sign in anymore
+        if (PendingCalls.isSettled(promise)) {
+            return;
+        }
         try {
+            PublicClient client = getClient(handle);
             AcquireTokenParameters.Builder acquireTokenParameters =
                     new AcquireTokenParameters.Builder()
                             .startAuthorizationFromActivity(this.getCurrentActivity());
@@ -251,14 +857,27 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
                 acquireTokenParameters.withAuthorizationQueryStringParameters(parameters);
             }
 
-            acquireTokenParameters.withCallback(getAuthInteractiveCallback(promise));
-            publicClientApplication.acquireToken(acquireTokenParameters.build());
+            String authority = params.hasKey("authority") ? params.getString("authority") : client.getDefaultAuthority();
+            ResultFields fields = ResultFields.fromReadableArray(params.hasKey("fields") ? params.getArray("fields") : null);
+            List<List<String>> prefetchScopes = params.hasKey("prefetchScopes")
+                    ? readScopeSets(params.getArray("prefetchScopes"))
+                    : client.getPrefetchScopes();
+            acquireTokenParameters.withCallback(
+                    getAuthInteractiveCallback(client, promise, authority, scopes, fields, prefetchScopes));
+            indexAccountsBeforeSignIn(client);
+            client.getPublicClientApplication().acquireToken(acquireTokenParameters.build());
         } catch (Exception e) {
             promise.reject(e);
         }
     }
 
-    private AuthenticationCallback getAuthInteractiveCallback(Promise promise) {
+    private AuthenticationCallback getAuthInteractiveCallback(
+            PublicClient client,
+            Promise promise,
+            String authority,
+            List<String> scopes,
+            ResultFields fields,
+            List<List<String>> prefetchScopes) {
         return new AuthenticationCallback() {
             @Override
             public void onCancel() {
@@ -268,7 +887,21 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
             @Override
             public void onSuccess(IAuthenticationResult authenticationResult) {
                 if (authenticationResult != null) {
-                    promise.resolve(msalResultToDictionary(authenticationResult));
+                    String accountIdentifier = authenticationResult.getAccount().getId();
+                    // The account may not have been signed in before. Without an index built
+                    // before the sign in, there's no telling, so no event is emitted then.
+                    AccountIndex accountIndex = client.getAccountIndex();
+                    boolean isNewAccount = accountIndex.isBuilt() && !accountIndex.isKnown(accountIdentifier);
+                    for (PublicClient sharingClient : getClientsSharingPublicClientApplication(client)) {
+                        sharingClient.getAccountIndex().invalidate();
+                        sharingClient.unmarkAccountRemoved(accountIdentifier);
+                    }
+                    if (isNewAccount) {
+                        emitTokenEvent(client, TOKEN_EVENT_ACCOUNT_ADDED, accountIdentifier, authenticationResult, null);
+                    }
+                    onTokenAcquired(client, accountIdentifier, authority, scopes, authenticationResult);
+                    promise.resolve(resultToMap(authenticationResult, fields));
+                    prefetchTokens(client, accountIdentifier, authority, scopes, prefetchScopes);
                 } else {
                     promise.resolve(null);
                 }
@@ -281,147 +914,828 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
         };
     }
 
+    /**
+     * Builds the account index while the user signs in, if it hasn't been yet, so that the sign in
+     * can tell whether it added an account. The sign in takes long enough for this to finish first.
+     */
+    private void indexAccountsBeforeSignIn(PublicClient client) {
+        AccountIndex accountIndex = client.getAccountIndex();
+        if (accountIndex.isBuilt()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    accountIndex.getAccounts();
+                } catch (Exception e) {
+                    // Then the sign in just doesn't emit accountAdded
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The module is shutting down
+        }
+    }
+
+    /**
+     * Starts silent acquisitions of the tokens the app will ask for next, without waiting for them.
+     * They land in the token cache, and calls made while they are still running join them.
+     */
+    private void prefetchTokens(
+            PublicClient client,
+            String accountIdentifier,
+            String authority,
+            List<String> acquiredScopes,
+            List<List<String>> prefetchScopes) {
+        Set<String> acquiredScopeSet = new HashSet<>(acquiredScopes);
+        for (List<String> scopes : prefetchScopes) {
+            if (scopes.isEmpty() || acquiredScopeSet.equals(new HashSet<>(scopes))) {
+                continue;
+            }
+            acquireTokenSilent(
+                    client,
+                    accountIdentifier,
+                    authority,
+                    scopes,
+                    false,
+                    ResultFields.NONE,
+                    track("prefetch", new PromiseImpl(null, null)));
+        }
+    }
+
     @ReactMethod
-    public void acquireTokenSilent(ReadableMap params, Promise promise) {
+    public void acquireTokenSilent(@Nullable String handle, ReadableMap params, Promise promiseIn) {
+        // Watched before the call may be held for init, so its deadline and cancellation cover that wait
+        Promise promise = watchCall(track("acquireTokenSilent", promiseIn, readRequestId(params)), params);
+        if (readinessGate.defer(handle, promise, () -> startAcquireTokenSilent(handle, params, promise))) {
+            return;
+        }
+        startAcquireTokenSilent(handle, params, promise);
+    }
+
+    private void startAcquireTokenSilent(@Nullable String handle, ReadableMap params, Promise promise) {
+        // Timed out or cancelled while held for init
+        if (PendingCalls.isSettled(promise)) {
+            return;
+        }
         try {
-            AcquireTokenSilentParameters.Builder acquireTokenSilentParameters =
-                    new AcquireTokenSilentParameters.Builder();
+            startAcquireTokenSilent(getClient(handle), params, null, promise);
+        } catch (Exception e) {
+            promise.reject(e);
+        }
+    }
 
+    /**
+     * @param defaultAuthority The client's default authority, if it was already looked up, e.g.
+     *     once for all requests of a batch
+     */
+    private void startAcquireTokenSilent(
+            PublicClient client, ReadableMap params, @Nullable String defaultAuthority, Promise promise) {
+        // Rejected right away, e.g. for a request id already in use
+        if (PendingCalls.isSettled(promise)) {
+            return;
+        }
+        try {
             // Required parameters
             List<String> scopes = readableArrayToStringList(params.getArray("scopes"));
-            acquireTokenSilentParameters.withScopes(scopes);
-
             ReadableMap accountIn = params.getMap("account");
             String accountIdentifier = accountIn.getString("identifier");
-            IAccount account = publicClientApplication.getAccount(accountIdentifier);
-            acquireTokenSilentParameters.forAccount(account);
 
             // Optional parameters
-            String authority =
-                    publicClientApplication
-                            .getConfiguration()
-                            .getDefaultAuthority()
-                            .getAuthorityURL()
-                            .toString();
-            if (params.hasKey("authority")) {
-                authority = params.getString("authority");
+            String authority = params.hasKey("authority")
+                    ? params.getString("authority")
+                    : defaultAuthority != null ? defaultAuthority : client.getDefaultAuthority();
+            boolean forceRefresh = params.hasKey("forceRefresh") && params.getBoolean("forceRefresh");
+            ResultFields fields = ResultFields.fromReadableArray(params.hasKey("fields") ? params.getArray("fields") : null);
+
+            // A token the caller explicitly wants replaced must not be served from memory anymore
+            if (forceRefresh) {
+                client.getTokenCache().invalidate(accountIdentifier, authority);
+            }
+
+            acquireTokenSilent(client, accountIdentifier, authority, scopes, forceRefresh, fields, promise);
+        } catch (Exception e) {
+            promise.reject(e);
+        }
+    }
+
+    /**
+     * Rejects the pending acquireToken or acquireTokenSilent call that was made with `requestId`.
+     * MSAL's own request can't be stopped, so it still completes in the background (and a
+     * silent result still lands in the token cache), but its result is no longer delivered.
+     */
+    @ReactMethod
+    public void cancel(String requestId, Promise promise) {
+        promise.resolve(pendingCalls.cancel(requestId));
+    }
+
+    private Promise watchCall(Promise promise, ReadableMap params) {
+        String requestId = readRequestId(params);
+        long timeoutMillis = params.hasKey("timeoutMs") && !params.isNull("timeoutMs")
+                ? (long) params.getDouble("timeoutMs")
+                : 0;
+        return pendingCalls.watch(promise, requestId, timeoutMillis);
+    }
+
+    /**
+     * Returns a still valid access token from the in-memory cache, or null. Runs synchronously on
+     * the JS thread, so it must never do more than a cache lookup.
+     */
+    @Nullable
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public String getCachedAccessTokenSync(
+            @Nullable String handle, String accountIdentifier, ReadableArray scopes, @Nullable String authority) {
+        PublicClient client = handle != null ? clients.get(handle) : defaultClient;
+        if (client == null) {
+            return null;
+        }
+
+        try {
+            IAuthenticationResult cachedResult = client.getTokenCache().get(
+                    accountIdentifier,
+                    authority != null ? authority : client.getDefaultAuthority(),
+                    readableArrayToStringList(scopes));
+            metrics.increment(cachedResult != null
+                    ? Metrics.COUNTER_TOKEN_CACHE_HITS
+                    : Metrics.COUNTER_TOKEN_CACHE_MISSES);
+            return cachedResult != null ? cachedResult.getAccessToken() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a still valid access token from the persistent snapshot. Works before, and while,
+     * `createPublicClientApplication` runs, so that the first request after a cold start doesn't
+     * have to wait for MSAL.
+     */
+    @ReactMethod
+    public void getTokenSnapshot(
+            String accountIdentifier, ReadableArray scopes, @Nullable String authority, Promise promiseIn) {
+        Promise promise = track("getTokenSnapshot", promiseIn);
+        execute(promise, () -> {
+            try {
+                TokenSnapshotStore.Entry entry =
+                        tokenSnapshotStore.get(accountIdentifier, authority, readableArrayToStringList(scopes));
+                metrics.increment(entry != null
+                        ? Metrics.COUNTER_TOKEN_SNAPSHOT_HITS
+                        : Metrics.COUNTER_TOKEN_SNAPSHOT_MISSES);
+                promise.resolve(entry != null ? tokenSnapshotEntryToMap(entry) : null);
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
+    }
+
+    private WritableMap tokenSnapshotEntryToMap(TokenSnapshotStore.Entry entry) {
+        WritableMap map = Arguments.createMap();
+        map.putString("accessToken", entry.accessToken);
+        map.putDouble("expiresOn", entry.expiresOnMillis / 1000);
+        map.putArray("scopes", Arguments.fromArray(entry.scopes.toArray(new String[0])));
+        map.putString("authority", entry.authority);
+        map.putString("tenantId", entry.tenantId);
+        return map;
+    }
+
+    @ReactMethod
+    public void acquireTokenSilentBatch(@Nullable String handle, ReadableArray requests, Promise promiseIn) {
+        Promise promise = track("acquireTokenSilentBatch", promiseIn);
+        if (readinessGate.defer(handle, promise, () -> startAcquireTokenSilentBatch(handle, requests, promise))) {
+            return;
+        }
+        startAcquireTokenSilentBatch(handle, requests, promise);
+    }
+
+    private void startAcquireTokenSilentBatch(@Nullable String handle, ReadableArray requests, Promise promise) {
+        try {
+            PublicClient client = getClient(handle);
+            int count = requests.size();
+            if (count == 0) {
+                promise.resolve(Arguments.createArray());
+                return;
+            }
+
+            BatchItemPromise[] items = new BatchItemPromise[count];
+            AtomicInteger remaining = new AtomicInteger(count);
+            Runnable onItemSettled = () -> {
+                if (remaining.decrementAndGet() == 0) {
+                    promise.resolve(makeBatchResultArray(items));
+                }
+            };
+            for (int i = 0; i < count; i++) {
+                items[i] = new BatchItemPromise(onItemSettled);
+            }
+
+            // Requests in the batch share the default authority
+            String defaultAuthority = client.getDefaultAuthority();
+
+            for (int i = 0; i < count; i++) {
+                try {
+                    ReadableMap params = requests.getMap(i);
+                    // Each request has its own deadline and request id, as if it was made on its own
+                    startAcquireTokenSilent(client, params, defaultAuthority, watchCall(items[i], params));
+                } catch (Exception e) {
+                    items[i].reject(e);
+                }
+            }
+        } catch (Exception e) {
+            promise.reject(e);
+        }
+    }
+
+    private WritableArray makeBatchResultArray(BatchItemPromise[] items) {
+        WritableArray array = Arguments.createArray();
+        for (BatchItemPromise itemPromise : items) {
+            WritableMap item = Arguments.createMap();
+            if (itemPromise.succeeded) {
+                if (itemPromise.result instanceof WritableMap) {
+                    item.putMap("result", (WritableMap) itemPromise.result);
+                } else {
+                    item.putNull("result");
+                }
+            } else {
+                WritableMap error = Arguments.createMap();
+                error.putString("code", itemPromise.errorCode);
+                error.putString("message", itemPromise.errorMessage);
+                item.putMap("error", error);
+            }
+            array.pushMap(item);
+        }
+        return array;
+    }
+
+    private void acquireTokenSilent(
+            PublicClient client,
+            String accountIdentifier,
+            String authority,
+            List<String> scopes,
+            boolean forceRefresh,
+            ResultFields fields,
+            Promise promise) {
+        try {
+            // Serve still-valid tokens from memory, unless a new one is explicitly requested
+            if (!forceRefresh) {
+                IAuthenticationResult cachedResult = client.getTokenCache().get(accountIdentifier, authority, scopes);
+                if (cachedResult != null) {
+                    metrics.increment(Metrics.COUNTER_TOKEN_CACHE_HITS);
+                    promise.resolve(resultToMap(cachedResult, fields));
+                    return;
+                }
+                metrics.increment(Metrics.COUNTER_TOKEN_CACHE_MISSES);
             }
-            acquireTokenSilentParameters.fromAuthority(authority);
 
-            if (params.hasKey("forceRefresh")) {
-                acquireTokenSilentParameters.forceRefresh(params.getBoolean("forceRefresh"));
+            // If an identical request is already in flight, wait for its result instead of
+            // making another call into MSAL
+            String requestKey = makeSilentRequestKey(client, accountIdentifier, authority, scopes, forceRefresh);
+            if (!inFlightSilentRequests.join(requestKey, new WaitingPromise(promise, fields))) {
+                metrics.increment(Metrics.COUNTER_COALESCED_SILENT_REQUESTS);
+                return;
             }
 
-            acquireTokenSilentParameters.withCallback(getAuthSilentCallback(promise));
-            publicClientApplication.acquireTokenSilentAsync(acquireTokenSilentParameters.build());
+            startSilentRequest(client, requestKey, accountIdentifier, authority, scopes, forceRefresh, 1);
         } catch (Exception e) {
             promise.reject(e);
         }
     }
 
-    private SilentAuthenticationCallback getAuthSilentCallback(Promise promise) {
+    private void startSilentRequest(
+            PublicClient client,
+            String requestKey,
+            String accountIdentifier,
+            String authority,
+            List<String> scopes,
+            boolean forceRefresh,
+            int attempt) {
+        Runnable acquireTokenSilentAsync = () -> {
+            try {
+                AcquireTokenSilentParameters.Builder acquireTokenSilentParameters =
+                        new AcquireTokenSilentParameters.Builder();
+                acquireTokenSilentParameters.withScopes(scopes);
+
+                IAccount account = client.getAccountIndex().getAccount(accountIdentifier);
+                acquireTokenSilentParameters.forAccount(account);
+                acquireTokenSilentParameters.fromAuthority(authority);
+                acquireTokenSilentParameters.forceRefresh(forceRefresh);
+
+                acquireTokenSilentParameters.withCallback(getAuthSilentCallback(
+                        client, requestKey, accountIdentifier, authority, scopes, forceRefresh, attempt));
+
+                // Fail fast while the authority is known to be unhealthy, instead of adding to its load
+                if (!client.getCircuitBreaker().allowRequest(authority)) {
+                    onSilentRequestRejected(requestKey, authority);
+                    return;
+                }
+                client.getPublicClientApplication().acquireTokenSilentAsync(acquireTokenSilentParameters.build());
+            } catch (Exception e) {
+                onSilentAttemptFailed(client, requestKey, accountIdentifier, authority, scopes, forceRefresh, attempt, e);
+            }
+        };
+
+        // The account lookup reads MSAL's storage
+        try {
+            executor.execute(acquireTokenSilentAsync);
+        } catch (RejectedExecutionException e) {
+            onSilentRequestFailed(client, requestKey, accountIdentifier, e);
+        }
+    }
+
+    private void onSilentAttemptFailed(
+            PublicClient client,
+            String requestKey,
+            String accountIdentifier,
+            String authority,
+            List<String> scopes,
+            boolean forceRefresh,
+            int attempt,
+            Exception error) {
+        CircuitBreaker circuitBreaker = client.getCircuitBreaker();
+        if (RetryPolicy.isTransient(error)) {
+            circuitBreaker.recordFailure(authority);
+        } else if (error instanceof MsalException) {
+            // Any other MSAL error means the authority did respond
+            circuitBreaker.recordSuccess(authority);
+        } else {
+            circuitBreaker.releaseProbe(authority);
+        }
+
+        // Requests made while waiting for the retry join it, instead of failing on their own
+        RetryPolicy retryPolicy = client.getRetryPolicy();
+        if (retryPolicy.shouldRetry(attempt, error)) {
+            try {
+                retryExecutor.schedule(
+                        () -> startSilentRequest(
+                                client, requestKey, accountIdentifier, authority, scopes, forceRefresh, attempt + 1),
+                        retryPolicy.getDelayMillis(attempt),
+                        TimeUnit.MILLISECONDS);
+                metrics.increment(Metrics.COUNTER_SILENT_RETRIES);
+                return;
+            } catch (RejectedExecutionException e) {
+                // The module is shutting down, so the error is reported right away
+            }
+        }
+        onSilentRequestFailed(client, requestKey, accountIdentifier, error);
+    }
+
+    private void onSilentRequestRejected(String requestKey, String authority) {
+        metrics.increment(Metrics.COUNTER_CIRCUIT_OPEN_REJECTIONS);
+        for (WaitingPromise waitingPromise : inFlightSilentRequests.complete(requestKey)) {
+            waitingPromise.promise.reject(
+                    CircuitBreaker.ERROR_CODE_CIRCUIT_OPEN,
+                    "Silent requests to " + authority + " are failing fast after repeated transient errors");
+        }
+    }
+
+    private void onSilentRequestFailed(
+            PublicClient client, String requestKey, String accountIdentifier, Exception error) {
+        emitTokenEvent(client, TOKEN_EVENT_REFRESH_FAILED, accountIdentifier, null, error);
+        for (WaitingPromise waitingPromise : inFlightSilentRequests.complete(requestKey)) {
+            waitingPromise.promise.reject(error);
+        }
+    }
+
+    private void onTokenAcquired(
+            PublicClient client,
+            String accountIdentifier,
+            String authority,
+            List<String> scopes,
+            IAuthenticationResult result) {
+        // The call was made before the account was removed, its token must not outlive the account
+        if (client.isAccountRemoved(accountIdentifier)) {
+            return;
+        }
+        client.getTokenCache().put(accountIdentifier, authority, scopes, result);
+        IAccount account = result.getAccount();
+        if (account != null) {
+            // The id token in the response may be newer than the indexed one. Off this thread, as
+            // the index may be locked while it is rebuilt from storage.
+            try {
+                executor.execute(() -> {
+                    for (PublicClient sharingClient : getClientsSharingPublicClientApplication(client)) {
+                        sharingClient.getAccountIndex().update(account);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The module is shutting down, so the index won't be read anymore
+            }
+        }
+        if (client.isTokenSnapshotEnabled()) {
+            // Encrypting and writing the snapshot must stay off the main thread
+            try {
+                executor.execute(() -> {
+                    if (!client.isAccountRemoved(accountIdentifier)) {
+                        tokenSnapshotStore.put(accountIdentifier, authority, scopes, result);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The module is shutting down, so the snapshot can't be used anymore anyway
+            }
+        }
+        emitTokenEvent(client, TOKEN_EVENT_TOKEN_REFRESHED, accountIdentifier, result, null);
+
+        TokenRefreshScheduler scheduler = client.getTokenRefreshScheduler();
+        if (scheduler != null && result.getExpiresOn() != null) {
+            scheduler.track(
+                    makeTokenKey(accountIdentifier, authority, scopes),
+                    accountIdentifier,
+                    authority,
+                    scopes,
+                    result.getExpiresOn().getTime());
+        }
+    }
+
+    private String makeTokenKey(String accountIdentifier, String authority, List<String> scopes) {
+        return accountIdentifier + "|" + authority + "|" + AccessTokenCache.canonicalizeScopes(scopes);
+    }
+
+    private String makeSilentRequestKey(
+            PublicClient client, String accountIdentifier, String authority, List<String> scopes, boolean forceRefresh) {
+        return client.getHandle() + "|" + makeTokenKey(accountIdentifier, authority, scopes) + "|" + forceRefresh;
+    }
+
+    private SilentAuthenticationCallback getAuthSilentCallback(
+            PublicClient client,
+            String requestKey,
+            String accountIdentifier,
+            String authority,
+            List<String> scopes,
+            boolean forceRefresh,
+            int attempt) {
         return new SilentAuthenticationCallback() {
             @Override
             public void onSuccess(IAuthenticationResult authenticationResult) {
+                client.getCircuitBreaker().recordSuccess(authority);
                 if (authenticationResult != null) {
-                    promise.resolve(msalResultToDictionary(authenticationResult));
-                } else {
-                    promise.resolve(null);
+                    onTokenAcquired(client, accountIdentifier, authority, scopes, authenticationResult);
+                }
+                // Each promise needs its own map, since a map can only be sent over the bridge once
+                for (WaitingPromise waitingPromise : inFlightSilentRequests.complete(requestKey)) {
+                    if (authenticationResult != null) {
+                        waitingPromise.promise.resolve(resultToMap(authenticationResult, waitingPromise.fields));
+                    } else {
+                        waitingPromise.promise.resolve(null);
+                    }
                 }
             }
 
             @Override
             public void onError(MsalException exception) {
-                promise.reject(exception);
+                onSilentAttemptFailed(
+                        client, requestKey, accountIdentifier, authority, scopes, forceRefresh, attempt, exception);
             }
         };
     }
 
+    /**
+     * Resolves the requested claims of the account's id token or, if `options.scopes` is given,
+     * of the cached access token for those scopes. Claims missing from the token are left out.
+     * Resolves null if there is no such token.
+     */
     @ReactMethod
-    public void getAccounts(Promise promise) {
-        try {
-            List<IAccount> accounts = publicClientApplication.getAccounts();
-            WritableArray array = Arguments.createArray();
-            if (accounts != null) {
-                for (IAccount account : accounts) {
-                    array.pushMap(accountToMap(account));
+    public void getTokenClaims(
+            @Nullable String handle,
+            String accountIdentifier,
+            ReadableArray claimNames,
+            @Nullable ReadableMap options,
+            Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> getTokenClaims(handle, accountIdentifier, claimNames, options, promiseIn))) {
+            return;
+        }
+        Promise promise = track("getTokenClaims", promiseIn);
+        execute(promise, () -> {
+            try {
+                PublicClient client = getClient(handle);
+                String token;
+                if (options != null && options.hasKey("scopes")) {
+                    String authority = options.hasKey("authority")
+                            ? options.getString("authority")
+                            : client.getDefaultAuthority();
+                    IAuthenticationResult cachedResult = client.getTokenCache().get(
+                            accountIdentifier, authority, readableArrayToStringList(options.getArray("scopes")));
+                    token = cachedResult != null ? cachedResult.getAccessToken() : null;
+                } else {
+                    IAccount account = client.getAccountIndex().getAccount(accountIdentifier);
+                    token = account != null ? account.getIdToken() : null;
+                }
+
+                if (token == null) {
+                    promise.resolve(null);
+                    return;
                 }
+
+                Map<String, Object> claims = jwtClaimsCache.getClaims(token);
+                Map<String, Object> requestedClaims = new HashMap<>();
+                for (String claimName : readableArrayToStringList(claimNames)) {
+                    if (claims.containsKey(claimName)) {
+                        requestedClaims.put(claimName, claims.get(claimName));
+                    }
+                }
+                promise.resolve(toWritableMap(requestedClaims));
+            } catch (Exception e) {
+                promise.reject(e);
             }
-            promise.resolve(array);
-        } catch (Exception e) {
-            promise.reject(e);
+        });
+    }
+
+    @ReactMethod
+    public void getAccounts(@Nullable String handle, @Nullable ReadableArray fields, Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> getAccounts(handle, fields, promiseIn))) {
+            return;
         }
+        Promise promise = track("getAccounts", promiseIn);
+        execute(promise, () -> {
+            try {
+                // Reading all accounts from storage anyway, so take the chance to refresh the index
+                List<IAccount> accounts = getClient(handle).getAccountIndex().refresh();
+                ResultFields accountFields = ResultFields.fromReadableArray(fields);
+                WritableArray array = Arguments.createArray();
+                if (accounts != null) {
+                    for (IAccount account : accounts) {
+                        array.pushMap(accountToMap(account, accountFields));
+                    }
+                }
+                promise.resolve(array);
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
     }
 
+    /**
+     * Resolves a page of up to `limit` accounts, and the cursor of the next page, which is null
+     * after the last page. Pass a null cursor for the first page.
+     */
     @ReactMethod
-    public void getAccount(String accountIdentifier, Promise promise) {
-        try {
-            IAccount account = publicClientApplication.getAccount(accountIdentifier);
-            if (account != null) {
-                promise.resolve(accountToMap(account));
-            } else {
-                promise.resolve(null);
+    public void getAccountsPage(
+            @Nullable String handle,
+            @Nullable String cursor,
+            int limit,
+            @Nullable ReadableArray fields,
+            Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> getAccountsPage(handle, cursor, limit, fields, promiseIn))) {
+            return;
+        }
+        Promise promise = track("getAccountsPage", promiseIn);
+        execute(promise, () -> {
+            try {
+                AccountIndex accountIndex = getClient(handle).getAccountIndex();
+                ResultFields accountFields = ResultFields.fromReadableArray(fields);
+                int pageSize = Math.max(1, limit);
+                // One more than asked for, to know whether there is a next page
+                List<IAccount> accounts = accountIndex.getAccountsAfter(cursor, pageSize + 1);
+                boolean hasMore = accounts.size() > pageSize;
+                List<IAccount> page = hasMore ? accounts.subList(0, pageSize) : accounts;
+
+                WritableMap map = Arguments.createMap();
+                map.putArray("accounts", accountsToArray(page, accountFields));
+                map.putString("nextCursor", hasMore ? page.get(page.size() - 1).getId() : null);
+                promise.resolve(map);
+            } catch (Exception e) {
+                promise.reject(e);
             }
-        } catch (Exception e) {
-            promise.reject(e);
+        });
+    }
+
+    /**
+     * Emits all accounts as `RNMSALAccountsChunk` events of up to `chunkSize` accounts each, so
+     * that JS can render the first accounts before all are converted, and only one chunk is held
+     * in memory at a time. Resolves the number of accounts once the last chunk was emitted.
+     */
+    @ReactMethod
+    public void streamAccounts(
+            @Nullable String handle,
+            String streamId,
+            int chunkSize,
+            @Nullable ReadableArray fields,
+            Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> streamAccounts(handle, streamId, chunkSize, fields, promiseIn))) {
+            return;
         }
+        Promise promise = track("streamAccounts", promiseIn, streamId);
+        execute(promise, () -> {
+            try {
+                AccountIndex accountIndex = getClient(handle).getAccountIndex();
+                ResultFields accountFields = ResultFields.fromReadableArray(fields);
+                int pageSize = Math.max(1, chunkSize);
+                String cursor = null;
+                int count = 0;
+                boolean hasMore;
+                do {
+                    List<IAccount> accounts = accountIndex.getAccountsAfter(cursor, pageSize + 1);
+                    hasMore = accounts.size() > pageSize;
+                    List<IAccount> chunk = hasMore ? accounts.subList(0, pageSize) : accounts;
+
+                    WritableMap event = Arguments.createMap();
+                    event.putString("streamId", streamId);
+                    event.putArray("accounts", accountsToArray(chunk, accountFields));
+                    event.putBoolean("done", !hasMore);
+                    emit(ACCOUNTS_CHUNK_EVENT_NAME, event);
+
+                    count += chunk.size();
+                    cursor = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1).getId();
+                } while (hasMore);
+                promise.resolve(count);
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
     }
 
+    /**
+     * Resolves the accounts that were added, updated or removed since `changeToken` was issued,
+     * and a new token. The index is only rebuilt after interactive sign ins and account removals,
+     * so when nothing changed this resolves empty lists without touching MSAL's storage.
+     */
     @ReactMethod
-    public void removeAccount(ReadableMap accountIn, Promise promise) {
-        try {
-            // Required parameters
-            String accountIdentifier = accountIn.getString(("identifier"));
-            IAccount account = publicClientApplication.getAccount(accountIdentifier);
-
-            publicClientApplication.removeAccount(
-                    account,
-                    new IMultipleAccountPublicClientApplication.RemoveAccountCallback() {
-                        @Override
-                        public void onRemoved() {
-                            promise.resolve(true);
-                        }
-
-                        @Override
-                        public void onError(@NonNull MsalException exception) {
-                            promise.reject(exception);
-                        }
-                    });
-        } catch (Exception e) {
-            promise.reject(e);
+    public void getAccountsSince(
+            @Nullable String handle, @Nullable String changeToken, @Nullable ReadableArray fields, Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> getAccountsSince(handle, changeToken, fields, promiseIn))) {
+            return;
+        }
+        Promise promise = track("getAccountsSince", promiseIn);
+        execute(promise, () -> {
+            try {
+                AccountIndex.Changes changes = getClient(handle).getAccountIndex().getChangesSince(changeToken);
+                ResultFields accountFields = ResultFields.fromReadableArray(fields);
+                WritableMap map = Arguments.createMap();
+                map.putString("changeToken", changes.changeToken);
+                map.putBoolean("reset", changes.reset);
+                map.putArray("added", accountsToArray(changes.added, accountFields));
+                map.putArray("updated", accountsToArray(changes.updated, accountFields));
+                map.putArray("removed", Arguments.fromList(changes.removed));
+                promise.resolve(map);
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
+    }
+
+    private WritableArray accountsToArray(List<IAccount> accounts, ResultFields fields) {
+        try (Tracer.Section ignored = tracer.beginSection("accountsToArray")) {
+            WritableArray array = Arguments.createArray();
+            for (IAccount account : accounts) {
+                array.pushMap(accountToMap(account, fields));
+            }
+            return array;
+        }
+    }
+
+    @ReactMethod
+    public void getAccount(
+            @Nullable String handle, String accountIdentifier, @Nullable ReadableArray fields, Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> getAccount(handle, accountIdentifier, fields, promiseIn))) {
+            return;
+        }
+        Promise promise = track("getAccount", promiseIn);
+        execute(promise, () -> {
+            try {
+                IAccount account = getClient(handle).getAccountIndex().getAccount(accountIdentifier);
+                if (account != null) {
+                    promise.resolve(accountToMap(account, ResultFields.fromReadableArray(fields)));
+                } else {
+                    promise.resolve(null);
+                }
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
+    }
+
+    @ReactMethod
+    public void removeAccount(@Nullable String handle, ReadableMap accountIn, Promise promiseIn) {
+        if (readinessGate.defer(handle, promiseIn, () -> removeAccount(handle, accountIn, promiseIn))) {
+            return;
+        }
+        Promise promise = track("removeAccount", promiseIn);
+        execute(promise, () -> {
+            try {
+                PublicClient client = getClient(handle);
+
+                // Required parameters
+                String accountIdentifier = accountIn.getString(("identifier"));
+                IAccount account = client.getAccountIndex().getAccount(accountIdentifier);
+                List<PublicClient> sharingClients = getClientsSharingPublicClientApplication(client);
+                for (PublicClient sharingClient : sharingClients) {
+                    sharingClient.markAccountRemoved(accountIdentifier);
+                }
+                forgetTokens(sharingClients, accountIdentifier);
+
+                client.getPublicClientApplication().removeAccount(
+                        account,
+                        new IMultipleAccountPublicClientApplication.RemoveAccountCallback() {
+                            @Override
+                            public void onRemoved() {
+                                // Forgotten again, for tokens stored while they were first. Off
+                                // the thread MSAL calls back on, as the snapshot store reads storage.
+                                execute(promise, () -> {
+                                    forgetTokens(sharingClients, accountIdentifier);
+                                    for (PublicClient sharingClient : sharingClients) {
+                                        sharingClient.getAccountIndex().invalidate();
+                                    }
+                                    emitTokenEvent(client, TOKEN_EVENT_ACCOUNT_REMOVED, accountIdentifier, null, null);
+                                    promise.resolve(true);
+                                });
+                            }
+
+                            @Override
+                            public void onError(@NonNull MsalException exception) {
+                                // The account is still there, and its tokens can be kept again
+                                for (PublicClient sharingClient : sharingClients) {
+                                    sharingClient.unmarkAccountRemoved(accountIdentifier);
+                                }
+                                promise.reject(exception);
+                            }
+                        });
+            } catch (Exception e) {
+                promise.reject(e);
+            }
+        });
+    }
+
+    /**
+     * Drops the account's tokens from the clients' caches, refresh schedules and the snapshot store
+     */
+    private void forgetTokens(List<PublicClient> sharingClients, String accountIdentifier) {
+        // Wiped even if snapshots are disabled now, as they may have been written before
+        tokenSnapshotStore.remove(accountIdentifier);
+        for (PublicClient sharingClient : sharingClients) {
+            sharingClient.getTokenCache().invalidate(accountIdentifier);
+            TokenRefreshScheduler scheduler = sharingClient.getTokenRefreshScheduler();
+            if (scheduler != null) {
+                scheduler.untrack(accountIdentifier);
+            }
+        }
+    }
+
+    private WritableMap resultToMap(@NonNull IAuthenticationResult result, @NonNull ResultFields fields) {
+        try (Tracer.Section ignored = tracer.beginSection("msalResultToDictionary")) {
+            return msalResultToDictionary(result, fields);
         }
     }
 
-    private WritableMap msalResultToDictionary(@NonNull IAuthenticationResult result) {
+    @VisibleForTesting
+    static WritableMap msalResultToDictionary(@NonNull IAuthenticationResult result, @NonNull ResultFields fields) {
         WritableMap map = Arguments.createMap();
-        map.putString("accessToken", result.getAccessToken());
-        map.putString("expiresOn", String.format("%s", result.getExpiresOn().getTime() / 1000));
-        String idToken = result.getAccount().getIdToken();
-        if (idToken == null) {
-            idToken = ((IMultiTenantAccount) result.getAccount()).getTenantProfiles().get(result.getTenantId()).getIdToken();
-        }
-        map.putString("idToken", idToken);
-        map.putArray("scopes", Arguments.fromArray(result.getScope()));
-        map.putString("tenantId", result.getTenantId());
-        map.putMap("account", accountToMap(result.getAccount()));
+        if (fields.includes("accessToken")) {
+            map.putString("accessToken", result.getAccessToken());
+        }
+        if (fields.includes("expiresOn")) {
+            map.putString("expiresOn", String.format("%s", result.getExpiresOn().getTime() / 1000));
+        }
+        if (fields.includes("idToken")) {
+            String idToken = result.getAccount().getIdToken();
+            if (idToken == null) {
+                idToken = ((IMultiTenantAccount) result.getAccount()).getTenantProfiles().get(result.getTenantId()).getIdToken();
+            }
+            map.putString("idToken", idToken);
+        }
+        if (fields.includes("scopes")) {
+            map.putArray("scopes", Arguments.fromArray(result.getScope()));
+        }
+        if (fields.includes("tenantId")) {
+            map.putString("tenantId", result.getTenantId());
+        }
+        if (fields.includes("account")) {
+            // Without `fields` the whole account is sent, claims included, as before `fields`
+            // existed. When `fields` are given, claims are left out unless they are listed, as they
+            // are by far the largest part
+            map.putMap("account", accountToMap(
+                    result.getAccount(), fields.nested("account", "identifier", "username", "tenantId")));
+        }
         return map;
     }
 
-    private WritableMap accountToMap(@NonNull IAccount account) {
+    @VisibleForTesting
+    static WritableMap accountToMap(@NonNull IAccount account, @NonNull ResultFields fields) {
         WritableMap map = Arguments.createMap();
+        // The identifier is always needed to make further calls for the account
         map.putString("identifier", account.getId());
-        map.putString("username", account.getUsername());
-        map.putString("tenantId", account.getTenantId());
-        Map<String, ?> claims = account.getClaims();
-        if (claims != null) {
-            map.putMap("claims", toWritableMap(claims));
+        if (fields.includes("username")) {
+            map.putString("username", account.getUsername());
+        }
+        if (fields.includes("tenantId")) {
+            map.putString("tenantId", account.getTenantId());
+        }
+        if (fields.includes("claims")) {
+            Map<String, ?> claims = account.getClaims();
+            if (claims != null) {
+                map.putMap("claims", toWritableMap(claims));
+            }
         }
         return map;
     }
 
 
     @NonNull
-    private List<String> readableArrayToStringList(@Nullable ReadableArray readableArray) {
+    static List<List<String>> readScopeSets(@Nullable ReadableArray readableArray) {
+        List<List<String>> scopeSets = new ArrayList<>();
+        if (readableArray != null) {
+            for (int i = 0; i < readableArray.size(); i++) {
+                scopeSets.add(readableArrayToStringList(readableArray.getArray(i)));
+            }
+        }
+        return scopeSets;
+    }
+
+    static List<String> readableArrayToStringList(@Nullable ReadableArray readableArray) {
         List<String> list = new ArrayList<>();
         if (readableArray != null) {
             for (Object item : readableArray.toArrayList()) {
@@ -432,7 +1746,8 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
     }
 
     @NonNull
-    private WritableMap toWritableMap(@NonNull Map<String, ?> map) {
+    @VisibleForTesting
+    static WritableMap toWritableMap(@NonNull Map<String, ?> map) {
         WritableMap writableMap = Arguments.createMap();
         for (Map.Entry<String, ?> entry : map.entrySet()) {
             String key = entry.getKey();
@@ -457,7 +1772,8 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
     }
 
     @NonNull
-    private WritableArray toWritableArray(@NonNull List<?> list) {
+    @VisibleForTesting
+    static WritableArray toWritableArray(@NonNull List<?> list) {
         WritableArray writableArray = Arguments.createArray();
         for (Object value : list.toArray()) {
             if (value == null) {
@@ -478,4 +1794,101 @@ public class RNMSALModule extends ReactContextBaseJavaModule {
         }
         return writableArray;
     }
+
+    /**
+     * Keeps the outcome of one request of a batch. MSAL errors keep their own error code, which
+     * PromiseImpl would replace with a generic one.
+     */
+    private static class BatchItemPromise implements Promise {
+        private final Runnable onSettled;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        volatile boolean succeeded;
+        @Nullable
+        volatile Object result;
+        @Nullable
+        volatile String errorCode;
+        @Nullable
+        volatile String errorMessage;
+
+        BatchItemPromise(Runnable onSettled) {
+            this.onSettled = onSettled;
+        }
+
+        private void settle(boolean succeeded, @Nullable Object result, @Nullable String code, @Nullable String message) {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            this.succeeded = succeeded;
+            this.result = result;
+            this.errorCode = code;
+            this.errorMessage = message;
+            onSettled.run();
+        }
+
+        @Override
+        public void resolve(@Nullable Object value) {
+            settle(true, value, null, null);
+        }
+
+        @Override
+        public void reject(String code, String message) {
+            settle(false, null, code, message);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable) {
+            settle(false, null, code, throwable.getMessage());
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable) {
+            settle(false, null, code, message);
+        }
+
+        @Override
+        public void reject(Throwable throwable) {
+            settle(false, null, getErrorCode(throwable), throwable.getMessage());
+        }
+
+        @Override
+        public void reject(Throwable throwable, WritableMap userInfo) {
+            settle(false, null, getErrorCode(throwable), throwable.getMessage());
+        }
+
+        @Override
+        public void reject(String code, @NonNull WritableMap userInfo) {
+            settle(false, null, code, null);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable, WritableMap userInfo) {
+            settle(false, null, code, throwable.getMessage());
+        }
+
+        @Override
+        public void reject(String code, String message, @NonNull WritableMap userInfo) {
+            settle(false, null, code, message);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+            settle(false, null, code, message);
+        }
+
+        @Override
+        @Deprecated
+        public void reject(String message) {
+            settle(false, null, null, message);
+        }
+    }
+
+    private static class WaitingPromise {
+        final Promise promise;
+        final ResultFields fields;
+
+        WaitingPromise(Promise promise, ResultFields fields) {
+            this.promise = promise;
+            this.fields = fields;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.reactnativemsal;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.facebook.react.ReactPackage;
 import com.facebook.react.bridge.NativeModule;
@@ -9,12 +10,53 @@ import com.facebook.react.uimanager.ViewManager;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 public class RNMSALPackage implements ReactPackage {
+    @Nullable
+    private final ExecutorService executor;
+    @Nullable
+    private final PublicClientApplicationFactory publicClientApplicationFactory;
+
+    public RNMSALPackage() {
+        this.executor = null;
+        this.publicClientApplicationFactory = null;
+    }
+
+    /**
+     * @param executorThreadCount Number of threads the module uses for MSAL calls which block on
+     *                            storage or I/O
+     */
+    public RNMSALPackage(int executorThreadCount) {
+        this(RNMSALModule.makeDefaultExecutor(executorThreadCount));
+    }
+
+    /**
+     * @param executor Executor the module uses for MSAL calls which block on storage or I/O. It is
+     *                 not shut down by the module.
+     */
+    public RNMSALPackage(@NonNull ExecutorService executor) {
+        this.executor = executor;
+        this.publicClientApplicationFactory = null;
+    }
+
+    /**
+     * @param executor                       Executor the module uses for MSAL calls which block on
+     *                                       storage or I/O, or null for the module's own
+     * @param publicClientApplicationFactory Creates the PCAs instead of MSAL, e.g. fakes for
+     *                                       end-to-end tests
+     */
+    public RNMSALPackage(
+            @Nullable ExecutorService executor,
+            @NonNull PublicClientApplicationFactory publicClientApplicationFactory) {
+        this.executor = executor;
+        this.publicClientApplicationFactory = publicClientApplicationFactory;
+    }
+
     @NonNull
     @Override
     public List<NativeModule> createNativeModules(@NonNull ReactApplicationContext reactContext) {
-        return Collections.singletonList(new RNMSALModule(reactContext));
+        return Collections.singletonList(new RNMSALModule(reactContext, executor, publicClientApplicationFactory));
     }
 
     @NonNull
@@ -12,6 +12,9 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.json.JSONException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class ReadableMapUtils {
@@ -80,6 +83,91 @@ public class ReadableMapUtils {
     return jsonArray;
   }
 
+  /**
+   * Appends a JSON representation of the map in which keys are sorted, so that equal maps always
+   * produce the same string
+   */
+  public static void appendCanonicalJson(@NonNull StringBuilder builder, @Nullable ReadableMap readableMap) {
+    if (readableMap == null) {
+      builder.append("null");
+      return;
+    }
+
+    List<String> keys = new ArrayList<>();
+    ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
+    while (iterator.hasNextKey()) {
+      keys.add(iterator.nextKey());
+    }
+    Collections.sort(keys);
+
+    builder.append('{');
+    for (int i = 0; i < keys.size(); i++) {
+      String key = keys.get(i);
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(JSONObject.quote(key)).append(':');
+
+      switch (readableMap.getType(key)) {
+        case Null:
+          builder.append("null");
+          break;
+        case Boolean:
+          builder.append(readableMap.getBoolean(key));
+          break;
+        case Number:
+          builder.append(readableMap.getDouble(key));
+          break;
+        case String:
+          builder.append(JSONObject.quote(readableMap.getString(key)));
+          break;
+        case Map:
+          appendCanonicalJson(builder, readableMap.getMap(key));
+          break;
+        case Array:
+          appendCanonicalJson(builder, readableMap.getArray(key));
+          break;
+      }
+    }
+    builder.append('}');
+  }
+
+  public static void appendCanonicalJson(@NonNull StringBuilder builder, @Nullable ReadableArray readableArray) {
+    if (readableArray == null) {
+      builder.append("null");
+      return;
+    }
+
+    builder.append('[');
+    for (int i = 0; i < readableArray.size(); i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+
+      switch (readableArray.getType(i)) {
+        case Null:
+          builder.append("null");
+          break;
+        case Boolean:
+          builder.append(readableArray.getBoolean(i));
+          break;
+        case Number:
+          builder.append(readableArray.getDouble(i));
+          break;
+        case String:
+          builder.append(JSONObject.quote(readableArray.getString(i)));
+          break;
+        case Map:
+          appendCanonicalJson(builder, readableArray.getMap(i));
+          break;
+        case Array:
+          appendCanonicalJson(builder, readableArray.getArray(i));
+          break;
+      }
+    }
+    builder.append(']');
+  }
+
   @NonNull
   public static String getStringOrDefault(@Nullable ReadableMap map, @NonNull String key, @NonNull String defaultValue) {
     try {
@@ -0,0 +1,123 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the calls made for a client while `createPublicClientApplication` is still creating it,
+ * so that JS doesn't have to wait for init before making them. Once the client is ready, the
+ * held calls are run in the order they were made; if creating it failed, they are all rejected
+ * with that error. Calls without a handle wait for the most recently started creation.
+ */
+public class ReadinessGate {
+    public static final String ERROR_CODE_DESTROYED = "destroyed";
+
+    public interface Dispatcher {
+        /**
+         * Runs the runnable on the thread the module's methods are called on, after the calls
+         * already queued there
+         */
+        void dispatch(@NonNull Runnable runnable);
+    }
+
+    private final Dispatcher dispatcher;
+    private final Map<String, List<DeferredCall>> callsByHandle = new HashMap<>();
+    @Nullable
+    private String latestHandle;
+
+    public ReadinessGate(@NonNull Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Marks the client with the handle as being created. Returns false if it already is.
+     */
+    public synchronized boolean begin(@NonNull String handle) {
+        if (callsByHandle.containsKey(handle)) {
+            return false;
+        }
+        callsByHandle.put(handle, new ArrayList<>());
+        latestHandle = handle;
+        return true;
+    }
+
+    /**
+     * Holds the call if the client it is for is being created. Returns whether it was held, in
+     * which case `call` runs, or `promise` is rejected, once creating the client is done.
+     */
+    public synchronized boolean defer(@Nullable String handle, @NonNull Promise promise, @NonNull Runnable call) {
+        String key = handle != null ? handle : latestHandle;
+        List<DeferredCall> calls = key != null ? callsByHandle.get(key) : null;
+        if (calls == null) {
+            return false;
+        }
+        calls.add(new DeferredCall(promise, call));
+        return true;
+    }
+
+    /**
+     * Runs the calls held for the client, which must be reachable by its handle by now
+     */
+    public void release(@NonNull String handle) {
+        // The held calls are taken on the dispatcher's thread, so calls made until then are
+        // still held, and run after the earlier ones rather than overtaking them
+        dispatcher.dispatch(() -> {
+            for (DeferredCall call : finish(handle)) {
+                try {
+                    call.call.run();
+                } catch (Exception e) {
+                    call.promise.reject(e);
+                }
+            }
+        });
+    }
+
+    public void fail(@NonNull String handle, @NonNull Exception error) {
+        for (DeferredCall call : finish(handle)) {
+            call.promise.reject(error);
+        }
+    }
+
+    public void shutdown() {
+        List<DeferredCall> calls = new ArrayList<>();
+        synchronized (this) {
+            for (List<DeferredCall> held : callsByHandle.values()) {
+                calls.addAll(held);
+            }
+            callsByHandle.clear();
+            latestHandle = null;
+        }
+        for (DeferredCall call : calls) {
+            call.promise.reject(
+                    ERROR_CODE_DESTROYED,
+                    "The React instance was destroyed before the PublicClientApplication was created");
+        }
+    }
+
+    @NonNull
+    private synchronized List<DeferredCall> finish(@NonNull String handle) {
+        List<DeferredCall> calls = callsByHandle.remove(handle);
+        if (handle.equals(latestHandle)) {
+            latestHandle = null;
+        }
+        return calls != null ? calls : Collections.emptyList();
+    }
+
+    private static class DeferredCall {
+        final Promise promise;
+        final Runnable call;
+
+        DeferredCall(Promise promise, Runnable call) {
+            this.promise = promise;
+            this.call = call;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableArray;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The fields of a result that should be sent back to JS. Fields of nested maps are addressed with
+ * a dot, e.g. `account.claims`.
+ */
+public class ResultFields {
+    public static final ResultFields ALL = new ResultFields(null);
+    public static final ResultFields NONE = new ResultFields(Collections.<String>emptySet());
+
+    // null means all fields
+    @Nullable
+    private final Set<String> fields;
+
+    private ResultFields(@Nullable Set<String> fields) {
+        this.fields = fields;
+    }
+
+    @NonNull
+    public static ResultFields of(@NonNull String... fields) {
+        Set<String> fieldSet = new HashSet<>();
+        Collections.addAll(fieldSet, fields);
+        return new ResultFields(fieldSet);
+    }
+
+    @NonNull
+    public static ResultFields fromReadableArray(@Nullable ReadableArray readableArray) {
+        if (readableArray == null) {
+            return ALL;
+        }
+
+        Set<String> fields = new HashSet<>();
+        for (int i = 0; i < readableArray.size(); i++) {
+            fields.add(readableArray.getString(i));
+        }
+        return new ResultFields(fields);
+    }
+
+    public boolean includes(@NonNull String field) {
+        if (fields == null || fields.contains(field)) {
+            return true;
+        }
+        // Asking for a nested field implies its parent
+        String prefix = field + ".";
+        for (String f : fields) {
+            if (f.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fields requested for the nested map `field`, plus `defaultFields`, which are
+     * included whenever the nested map is.
+     */
+    @NonNull
+    public ResultFields nested(@NonNull String field, @NonNull String... defaultFields) {
+        if (fields == null) {
+            return ALL;
+        }
+
+        Set<String> nestedFields = new HashSet<>();
+        Collections.addAll(nestedFields, defaultFields);
+        String prefix = field + ".";
+        for (String f : fields) {
+            if (f.startsWith(prefix)) {
+                nestedFields.add(f.substring(prefix.length()));
+            }
+        }
+        return new ResultFields(nestedFields);
+    }
+}
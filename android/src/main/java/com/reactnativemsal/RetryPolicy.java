@@ -0,0 +1,82 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import java.util.Random;
+
+/**
+ * Decides whether a failed silent token request is retried, and after how long. Only failures
+ * that are likely to go away by themselves (throttling, server errors and network errors) are
+ * retried, with exponentially growing, jittered delays.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 8000;
+
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Random random = new Random();
+
+    public RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Whether to retry after `attempt` (1 for the first request) failed with `error`
+     */
+    public boolean shouldRetry(int attempt, @NonNull Exception error) {
+        return attempt < maxAttempts && isTransient(error);
+    }
+
+    /**
+     * The delay before the retry following `attempt`. Half of it grows exponentially, the other
+     * half is random, so that clients which failed at the same time don't retry at the same time.
+     */
+    public long getDelayMillis(int attempt) {
+        long exponentialDelay = baseDelayMillis << Math.min(Math.max(0, attempt - 1), 20);
+        long delay = Math.min(maxDelayMillis, exponentialDelay);
+        long halfDelay = delay / 2;
+        synchronized (random) {
+            return halfDelay + (long) (random.nextDouble() * (delay - halfDelay));
+        }
+    }
+
+    /**
+     * Whether the error is likely to go away by itself: throttling, server and network errors
+     */
+    public static boolean isTransient(@NonNull Exception error) {
+        if (error instanceof MsalServiceException) {
+            int statusCode = ((MsalServiceException) error).getHttpStatusCode();
+            String errorCode = ((MsalServiceException) error).getErrorCode();
+            return statusCode == 429
+                    || (statusCode >= 500 && statusCode < 600)
+                    || "service_not_available".equals(errorCode)
+                    || "request_timeout".equals(errorCode);
+        }
+        return isNetworkError(error);
+    }
+
+    /**
+     * Whether MSAL failed because the network is unavailable or a request to the service failed
+     */
+    public static boolean isNetworkError(@NonNull Exception error) {
+        if (error instanceof MsalClientException) {
+            String errorCode = ((MsalClientException) error).getErrorCode();
+            return "device_network_not_available".equals(errorCode) || "io_error".equals(errorCode);
+        }
+        return false;
+    }
+}
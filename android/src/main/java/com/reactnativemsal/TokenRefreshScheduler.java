@@ -0,0 +1,186 @@
+package com.reactnativemsal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews tracked access tokens shortly before they expire, so that callers find a fresh token
+ * in the cache instead of waiting for a network refresh. Renewals are spread out by a random
+ * jitter, and are held back while the scheduler is paused (i.e. the app is in the background).
+ * A renewal is never scheduled before half of the token's remaining lifetime has passed, nor
+ * sooner than {@link #MIN_REFRESH_DELAY_MILLIS} after the token is tracked, so that tokens that
+ * live shorter than the lead time, or a skewed clock, can't make renewals run back to back.
+ */
+public class TokenRefreshScheduler {
+    public static final long DEFAULT_LEAD_TIME_MILLIS = 10 * 60 * 1000;
+    public static final long DEFAULT_JITTER_MILLIS = 60 * 1000;
+    public static final long MIN_REFRESH_DELAY_MILLIS = 60 * 1000;
+
+    public interface Renewer {
+        void renew(@NonNull String accountIdentifier, @NonNull String authority, @NonNull List<String> scopes);
+    }
+
+    private final Renewer renewer;
+    private final long leadTimeMillis;
+    private final long jitterMillis;
+    private final Random random = new Random();
+    private final Map<String, TrackedToken> trackedTokens = new HashMap<>();
+    private final ScheduledExecutorService executor;
+    private boolean paused = false;
+
+    public TokenRefreshScheduler(@NonNull Renewer renewer, long leadTimeMillis, long jitterMillis) {
+        this(renewer, leadTimeMillis, jitterMillis, makeDefaultExecutor());
+    }
+
+    @VisibleForTesting
+    TokenRefreshScheduler(
+            @NonNull Renewer renewer, long leadTimeMillis, long jitterMillis, @NonNull ScheduledExecutorService executor) {
+        this.renewer = renewer;
+        this.leadTimeMillis = Math.max(0, leadTimeMillis);
+        this.jitterMillis = Math.max(0, jitterMillis);
+        this.executor = executor;
+    }
+
+    @NonNull
+    private static ScheduledExecutorService makeDefaultExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RNMSAL-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Schedules a renewal of the token for the given account, authority and scopes. Replaces any
+     * renewal already scheduled for the same token.
+     */
+    public synchronized void track(
+            @NonNull String key,
+            @NonNull String accountIdentifier,
+            @NonNull String authority,
+            @NonNull List<String> scopes,
+            long expiresOnMillis) {
+        TrackedToken previous = trackedTokens.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        long now = System.currentTimeMillis();
+        long refreshAtMillis = expiresOnMillis - leadTimeMillis - nextJitter();
+        // Renewing returns a token with the same lifetime, so renewing it right away would repeat forever
+        long earliestRefreshAtMillis = now + Math.max(MIN_REFRESH_DELAY_MILLIS, (expiresOnMillis - now) / 2);
+        if (refreshAtMillis < earliestRefreshAtMillis) {
+            refreshAtMillis = earliestRefreshAtMillis;
+        }
+        TrackedToken token = new TrackedToken(key, accountIdentifier, authority, scopes, refreshAtMillis);
+        trackedTokens.put(key, token);
+        if (!paused) {
+            schedule(token, now);
+        }
+    }
+
+    public synchronized void untrack(@NonNull String accountIdentifier) {
+        Iterator<TrackedToken> iterator = trackedTokens.values().iterator();
+        while (iterator.hasNext()) {
+            TrackedToken token = iterator.next();
+            if (token.accountIdentifier.equals(accountIdentifier)) {
+                token.cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Holds back all renewals until {@link #resume()} is called.
+     */
+    public synchronized void pause() {
+        paused = true;
+        for (TrackedToken token : trackedTokens.values()) {
+            token.cancel();
+        }
+    }
+
+    /**
+     * Reschedules all renewals. Renewals that became due while paused are run right away, spread
+     * out over the jitter window.
+     */
+    public synchronized void resume() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        long now = System.currentTimeMillis();
+        for (TrackedToken token : trackedTokens.values()) {
+            if (token.refreshAtMillis <= now) {
+                token.refreshAtMillis = now + nextJitter();
+            }
+            schedule(token, now);
+        }
+    }
+
+    public synchronized void shutdown() {
+        trackedTokens.clear();
+        executor.shutdownNow();
+    }
+
+    private void schedule(@NonNull TrackedToken token, long now) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        long delayMillis = Math.max(0, token.refreshAtMillis - now);
+        token.future = executor.schedule(() -> run(token), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(@NonNull TrackedToken token) {
+        synchronized (this) {
+            // The token may have been replaced or untracked since this renewal was scheduled
+            if (paused || trackedTokens.get(token.key) != token) {
+                return;
+            }
+            // A successful renewal tracks the new token again
+            trackedTokens.remove(token.key);
+        }
+        renewer.renew(token.accountIdentifier, token.authority, token.scopes);
+    }
+
+    private long nextJitter() {
+        return jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0;
+    }
+
+    private static class TrackedToken {
+        final String key;
+        final String accountIdentifier;
+        final String authority;
+        final List<String> scopes;
+        long refreshAtMillis;
+        ScheduledFuture<?> future;
+
+        TrackedToken(String key, String accountIdentifier, String authority, List<String> scopes, long refreshAtMillis) {
+            this.key = key;
+            this.accountIdentifier = accountIdentifier;
+            this.authority = authority;
+            this.scopes = new ArrayList<>(scopes);
+            this.refreshAtMillis = refreshAtMillis;
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.reactnativemsal;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import com.microsoft.identity.client.IAuthenticationResult;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+import java.security.KeyStore;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypted, persistent snapshot of the most recent access tokens, which can be read on cold
+ * start before the PCA has been created. Entries are encrypted with an AES key that never leaves
+ * the AndroidKeyStore, and are keyed by hashes, so account identifiers aren't stored in the clear
+ * either. Requires API 23; on older devices nothing is stored.
+ *
+ * All methods do I/O and must not be called on the main thread.
+ */
+public class TokenSnapshotStore {
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+    public static final long DEFAULT_EXPIRATION_MARGIN_MILLIS = 5 * 60 * 1000;
+
+    private static final String TAG = "RNMSALTokenSnapshot";
+    private static final String SHARED_PREFERENCES_NAME = "com.reactnativemsal.token_snapshot";
+    private static final String KEYSTORE_PROVIDER = "AndroidKeyStore";
+    private static final String KEY_ALIAS = "com.reactnativemsal.token_snapshot";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_TAG_LENGTH_BITS = 128;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Context context;
+    private final int maxEntries;
+    private final long expirationMarginMillis;
+    @Nullable
+    private SharedPreferences preferences;
+    @Nullable
+    private SecretKey secretKey;
+
+    public TokenSnapshotStore(@NonNull Context context) {
+        this(context, DEFAULT_MAX_ENTRIES, DEFAULT_EXPIRATION_MARGIN_MILLIS);
+    }
+
+    public TokenSnapshotStore(@NonNull Context context, int maxEntries, long expirationMarginMillis) {
+        this.context = context.getApplicationContext();
+        this.maxEntries = Math.max(0, maxEntries);
+        this.expirationMarginMillis = Math.max(0, expirationMarginMillis);
+    }
+
+    /**
+     * Returns a snapshot entry for the account whose scopes are a superset of `scopes`, and which
+     * won't expire within the expiration margin. If `authority` is null, entries of any authority
+     * match. Returns null otherwise.
+     */
+    @Nullable
+    public synchronized Entry get(
+            @NonNull String accountIdentifier, @Nullable String authority, @NonNull Collection<String> scopes) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return null;
+        }
+
+        Set<String> requestedScopes = AccessTokenCache.canonicalizeScopes(scopes);
+        String accountPrefix = makeAccountPrefix(accountIdentifier);
+        long now = System.currentTimeMillis();
+        SharedPreferences.Editor editor = getPreferences().edit();
+        boolean modified = false;
+        Entry match = null;
+
+        for (Map.Entry<String, ?> stored : getPreferences().getAll().entrySet()) {
+            if (!stored.getKey().startsWith(accountPrefix) || !(stored.getValue() instanceof String)) {
+                continue;
+            }
+
+            Entry entry = decrypt((String) stored.getValue());
+            if (entry == null || !isValid(entry, now)) {
+                editor.remove(stored.getKey());
+                modified = true;
+            } else if (match == null
+                    && entry.accountIdentifier.equals(accountIdentifier)
+                    && (authority == null || entry.authority.equals(authority))
+                    && entry.scopes.containsAll(requestedScopes)) {
+                match = entry;
+            }
+        }
+
+        if (modified) {
+            editor.apply();
+        }
+        return match;
+    }
+
+    public synchronized void put(
+            @NonNull String accountIdentifier,
+            @NonNull String authority,
+            @NonNull Collection<String> requestedScopes,
+            @NonNull IAuthenticationResult result) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M || maxEntries == 0 || result.getExpiresOn() == null) {
+            return;
+        }
+
+        // As in AccessTokenCache, the token is valid for both the requested and the granted scopes
+        Set<String> scopes = AccessTokenCache.canonicalizeScopes(requestedScopes);
+        if (result.getScope() != null) {
+            scopes.addAll(AccessTokenCache.canonicalizeScopes(Arrays.asList(result.getScope())));
+        }
+
+        Entry entry = new Entry(
+                accountIdentifier,
+                authority,
+                scopes,
+                result.getAccessToken(),
+                result.getExpiresOn().getTime(),
+                result.getTenantId());
+        long now = System.currentTimeMillis();
+        if (!isValid(entry, now)) {
+            return;
+        }
+
+        try {
+            String key = makeAccountPrefix(accountIdentifier)
+                    + HashUtils.sha256Hex(authority + "|" + AccessTokenCache.canonicalizeScopes(requestedScopes));
+            SharedPreferences.Editor editor = getPreferences().edit();
+            editor.putString(key, encrypt(entry));
+            evict(editor, key, now);
+            editor.apply();
+        } catch (Exception e) {
+            Log.w(TAG, "Could not write token snapshot", e);
+        }
+    }
+
+    public synchronized void remove(@NonNull String accountIdentifier) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return;
+        }
+
+        String accountPrefix = makeAccountPrefix(accountIdentifier);
+        SharedPreferences.Editor editor = getPreferences().edit();
+        for (String key : getPreferences().getAll().keySet()) {
+            if (key.startsWith(accountPrefix)) {
+                editor.remove(key);
+            }
+        }
+        editor.apply();
+    }
+
+    public synchronized void clear() {
+        getPreferences().edit().clear().apply();
+    }
+
+    // Drops expired entries, and those expiring soonest while there are more than maxEntries
+    @RequiresApi(api = Build.VERSION_CODES.M)
+    private void evict(SharedPreferences.Editor editor, String addedKey, long now) {
+        List<Map.Entry<String, Long>> expirations = new ArrayList<>();
+        for (Map.Entry<String, ?> stored : getPreferences().getAll().entrySet()) {
+            if (stored.getKey().equals(addedKey) || !(stored.getValue() instanceof String)) {
+                continue;
+            }
+            Entry entry = decrypt((String) stored.getValue());
+            if (entry == null || !isValid(entry, now)) {
+                editor.remove(stored.getKey());
+            } else {
+                expirations.add(new AbstractMap.SimpleEntry<>(stored.getKey(), entry.expiresOnMillis));
+            }
+        }
+
+        Collections.sort(expirations, (a, b) -> a.getValue().compareTo(b.getValue()));
+        // One slot is taken by the entry being added
+        for (int i = 0; i < expirations.size() - (maxEntries - 1); i++) {
+            editor.remove(expirations.get(i).getKey());
+        }
+    }
+
+    private boolean isValid(@NonNull Entry entry, long now) {
+        return entry.expiresOnMillis - expirationMarginMillis > now;
+    }
+
+    @NonNull
+    private SharedPreferences getPreferences() {
+        if (preferences == null) {
+            preferences = context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+        }
+        return preferences;
+    }
+
+    @NonNull
+    private String makeAccountPrefix(@NonNull String accountIdentifier) {
+        try {
+            return HashUtils.sha256Hex(accountIdentifier) + ".";
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.M)
+    @NonNull
+    private SecretKey getSecretKey() throws Exception {
+        if (secretKey != null) {
+            return secretKey;
+        }
+
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_PROVIDER);
+        keyStore.load(null);
+        if (keyStore.containsAlias(KEY_ALIAS)) {
+            secretKey = ((KeyStore.SecretKeyEntry) keyStore.getEntry(KEY_ALIAS, null)).getSecretKey();
+        } else {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, KEYSTORE_PROVIDER);
+            keyGenerator.init(new KeyGenParameterSpec.Builder(
+                    KEY_ALIAS, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                    .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                    .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                    .setKeySize(256)
+                    .build());
+            secretKey = keyGenerator.generateKey();
+        }
+        return secretKey;
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.M)
+    @NonNull
+    private String encrypt(@NonNull Entry entry) throws Exception {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, getSecretKey());
+        byte[] iv = cipher.getIV();
+        byte[] cipherText = cipher.doFinal(entry.toJson().toString().getBytes(UTF_8));
+
+        byte[] ivAndCipherText = new byte[1 + iv.length + cipherText.length];
+        ivAndCipherText[0] = (byte) iv.length;
+        System.arraycopy(iv, 0, ivAndCipherText, 1, iv.length);
+        System.arraycopy(cipherText, 0, ivAndCipherText, 1 + iv.length, cipherText.length);
+        return Base64.encodeToString(ivAndCipherText, Base64.NO_WRAP);
+    }
+
+    // Returns null for entries that can't be decrypted, e.g. because the key was invalidated
+    @RequiresApi(api = Build.VERSION_CODES.M)
+    @Nullable
+    private Entry decrypt(@NonNull String value) {
+        try {
+            byte[] ivAndCipherText = Base64.decode(value, Base64.NO_WRAP);
+            int ivLength = ivAndCipherText[0];
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(
+                    Cipher.DECRYPT_MODE,
+                    getSecretKey(),
+                    new GCMParameterSpec(GCM_TAG_LENGTH_BITS, ivAndCipherText, 1, ivLength));
+            byte[] plainText = cipher.doFinal(ivAndCipherText, 1 + ivLength, ivAndCipherText.length - 1 - ivLength);
+            return Entry.fromJson(new JSONObject(new String(plainText, UTF_8)));
+        } catch (Exception e) {
+            Log.w(TAG, "Discarding unreadable token snapshot entry", e);
+            return null;
+        }
+    }
+
+    public static class Entry {
+        public final String accountIdentifier;
+        public final String authority;
+        public final Set<String> scopes;
+        public final String accessToken;
+        public final long expiresOnMillis;
+        @Nullable
+        public final String tenantId;
+
+        Entry(
+                String accountIdentifier,
+                String authority,
+                Set<String> scopes,
+                String accessToken,
+                long expiresOnMillis,
+                @Nullable String tenantId) {
+            this.accountIdentifier = accountIdentifier;
+            this.authority = authority;
+            this.scopes = scopes;
+            this.accessToken = accessToken;
+            this.expiresOnMillis = expiresOnMillis;
+            this.tenantId = tenantId;
+        }
+
+        JSONObject toJson() throws Exception {
+            JSONObject json = new JSONObject();
+            json.put("accountIdentifier", accountIdentifier);
+            json.put("authority", authority);
+            json.put("scopes", new JSONArray(scopes));
+            json.put("accessToken", accessToken);
+            json.put("expiresOn", expiresOnMillis);
+            json.put("tenantId", tenantId != null ? tenantId : JSONObject.NULL);
+            return json;
+        }
+
+        static Entry fromJson(JSONObject json) throws Exception {
+            JSONArray scopesJson = json.getJSONArray("scopes");
+            Set<String> scopes = new TreeSet<>();
+            for (int i = 0; i < scopesJson.length(); i++) {
+                scopes.add(scopesJson.getString(i));
+            }
+            return new Entry(
+                    json.getString("accountIdentifier"),
+                    json.getString("authority"),
+                    scopes,
+                    json.getString("accessToken"),
+                    json.getLong("expiresOn"),
+                    json.isNull("tenantId") ? null : json.getString("tenantId"));
+        }
+    }
+}
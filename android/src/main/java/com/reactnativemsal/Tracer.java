@@ -0,0 +1,181 @@
+package com.reactnativemsal;
+
+import android.os.Build;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in android.os.Trace instrumentation, so the module's work shows up in systrace and
+ * Perfetto traces. Each call is an async slice from bridge entry to its promise settling,
+ * labeled with the method and request id, and the phases in between are sections on the
+ * threads they run on. Nothing is recorded, and no labels are built, while disabled.
+ */
+public class Tracer {
+    private static final String PREFIX = "RNMSAL:";
+    // Longer section names are rejected by android.os.Trace
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static final Section NO_SECTION = () -> {};
+
+    private final AtomicInteger lastCookie = new AtomicInteger();
+    private volatile boolean enabled;
+
+    /**
+     * Ends the section it was returned for. Sections must end on the thread they began on, and
+     * in the reverse order they began in, which try-with-resources takes care of.
+     */
+    public interface Section extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return false;
+        }
+        // Before Q there's no asking whether a trace is being captured, so sections are always recorded
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || Trace.isEnabled();
+    }
+
+    /**
+     * Begins a section named `name` on the current thread
+     */
+    @NonNull
+    public Section beginSection(@NonNull String name) {
+        // The SDK check is repeated here, so lint sees that Trace is only used where it exists
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2 || !isEnabled()) {
+            return NO_SECTION;
+        }
+        Trace.beginSection(truncate(PREFIX + name));
+        return new TraceSection();
+    }
+
+    /**
+     * Returns a promise which settles `promise`, and which is traced as an async slice from now
+     * until it settles. The slice is labeled with `requestId`, or a number unique to the call if
+     * it is null. Returns `promise` itself while disabled, or before Android Q.
+     */
+    @NonNull
+    public Promise trace(@NonNull String method, @Nullable String requestId, @NonNull Promise promise) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || !isEnabled()) {
+            return promise;
+        }
+        int cookie = lastCookie.incrementAndGet();
+        String name = truncate(PREFIX + method + " " + (requestId != null ? requestId : "#" + cookie));
+        Trace.beginAsyncSection(name, cookie);
+        return new TracedPromise(promise, name, cookie);
+    }
+
+    @NonNull
+    private static String truncate(@NonNull String name) {
+        return name.length() > MAX_SECTION_NAME_LENGTH ? name.substring(0, MAX_SECTION_NAME_LENGTH) : name;
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static class TraceSection implements Section {
+        @Override
+        public void close() {
+            Trace.endSection();
+        }
+    }
+
+    private static class TracedPromise implements Promise {
+        private final Promise promise;
+        private final String name;
+        private final int cookie;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        TracedPromise(Promise promise, String name, int cookie) {
+            this.promise = promise;
+            this.name = name;
+            this.cookie = cookie;
+        }
+
+        // A slice may only end once, even if the promise is settled more than once
+        private void end() {
+            if (ended.compareAndSet(false, true) && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(name, cookie);
+            }
+        }
+
+        @Override
+        public void resolve(@Nullable Object value) {
+            end();
+            promise.resolve(value);
+        }
+
+        @Override
+        public void reject(String code, String message) {
+            end();
+            promise.reject(code, message);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable) {
+            end();
+            promise.reject(code, throwable);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable) {
+            end();
+            promise.reject(code, message, throwable);
+        }
+
+        @Override
+        public void reject(Throwable throwable) {
+            end();
+            promise.reject(throwable);
+        }
+
+        @Override
+        public void reject(Throwable throwable, WritableMap userInfo) {
+            end();
+            promise.reject(throwable, userInfo);
+        }
+
+        @Override
+        public void reject(String code, @NonNull WritableMap userInfo) {
+            end();
+            promise.reject(code, userInfo);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable, WritableMap userInfo) {
+            end();
+            promise.reject(code, throwable, userInfo);
+        }
+
+        @Override
+        public void reject(String code, String message, @NonNull WritableMap userInfo) {
+            end();
+            promise.reject(code, message, userInfo);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+            end();
+            promise.reject(code, message, throwable, userInfo);
+        }
+
+        @Override
+        @Deprecated
+        public void reject(String message) {
+            end();
+            promise.reject(message);
+        }
+    }
+}
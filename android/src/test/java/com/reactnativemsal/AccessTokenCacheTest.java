@@ -0,0 +1,100 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.IAuthenticationResult;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccessTokenCacheTest {
+    private static final String ACCOUNT = ConversionFixtures.ACCOUNT_ID;
+    private static final String AUTHORITY = ConversionFixtures.DEFAULT_AUTHORITY;
+    private static final List<String> USER_READ = Collections.singletonList("User.Read");
+    private static final List<String> USER_AND_MAIL_READ = Arrays.asList("User.Read", "Mail.Read");
+
+    private final AccessTokenCache cache = new AccessTokenCache(4, 0);
+
+    @Test
+    public void get_returnsTokenForSameScopesSpelledDifferently() {
+        IAuthenticationResult result = makeResult(TimeUnit.HOURS.toMillis(1));
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, result);
+
+        assertSame(result, cache.get(ACCOUNT, AUTHORITY, Arrays.asList(" user.read ", "openid")));
+    }
+
+    @Test
+    public void get_returnsTokenGrantedForSupersetOfScopes() {
+        IAuthenticationResult result = makeResult(TimeUnit.HOURS.toMillis(1));
+        cache.put(ACCOUNT, AUTHORITY, USER_AND_MAIL_READ, result);
+
+        assertSame(result, cache.get(ACCOUNT, AUTHORITY, USER_READ));
+        assertNull(cache.get(ACCOUNT, AUTHORITY, Arrays.asList("User.Read", "Mail.Send")));
+    }
+
+    @Test
+    public void get_missesForReservedScopesOnly() {
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, makeResult(TimeUnit.HOURS.toMillis(1)));
+
+        // Any token would be a superset of no scopes at all, even one for another API
+        assertNull(cache.get(ACCOUNT, AUTHORITY, Arrays.asList("openid", "profile", "offline_access")));
+        assertNull(cache.get(ACCOUNT, AUTHORITY, Collections.emptyList()));
+    }
+
+    @Test
+    public void get_fallsBackToSupersetWhenExactMatchExpired() throws Exception {
+        IAuthenticationResult superset = makeResult(TimeUnit.HOURS.toMillis(1));
+        cache.put(ACCOUNT, AUTHORITY, USER_AND_MAIL_READ, superset);
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, makeResult(50));
+
+        Thread.sleep(100);
+
+        assertSame(superset, cache.get(ACCOUNT, AUTHORITY, USER_READ));
+    }
+
+    @Test
+    public void get_missesForOtherAccountsAndAuthorities() {
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, makeResult(TimeUnit.HOURS.toMillis(1)));
+
+        assertNull(cache.get("other-account", AUTHORITY, USER_READ));
+        assertNull(cache.get(ACCOUNT, "https://login.microsoftonline.com/common", USER_READ));
+    }
+
+    @Test
+    public void get_missesWithinExpirationMargin() {
+        AccessTokenCache cache = new AccessTokenCache(4, TimeUnit.MINUTES.toMillis(5));
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, makeResult(TimeUnit.MINUTES.toMillis(6)));
+        cache.put(ACCOUNT, AUTHORITY, USER_AND_MAIL_READ, makeResult(TimeUnit.MINUTES.toMillis(4)));
+
+        assertNull(cache.get(ACCOUNT, AUTHORITY, USER_AND_MAIL_READ));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        AccessTokenCache cache = new AccessTokenCache(2, 0);
+        IAuthenticationResult first = makeResult(TimeUnit.HOURS.toMillis(1));
+        cache.put(ACCOUNT, AUTHORITY, USER_READ, first);
+        cache.put(ACCOUNT, AUTHORITY, Collections.singletonList("Mail.Read"), makeResult(TimeUnit.HOURS.toMillis(1)));
+        cache.get(ACCOUNT, AUTHORITY, USER_READ);
+
+        cache.put(ACCOUNT, AUTHORITY, Collections.singletonList("Files.Read"), makeResult(TimeUnit.HOURS.toMillis(1)));
+
+        assertSame(first, cache.get(ACCOUNT, AUTHORITY, USER_READ));
+        assertNull(cache.get(ACCOUNT, AUTHORITY, Collections.singletonList("Mail.Read")));
+    }
+
+    private static IAuthenticationResult makeResult(long lifetimeMillis) {
+        IAuthenticationResult result = mock(IAuthenticationResult.class);
+        when(result.getExpiresOn()).thenReturn(new Date(System.currentTimeMillis() + lifetimeMillis));
+        when(result.getScope()).thenReturn(new String[0]);
+        return result;
+    }
+}
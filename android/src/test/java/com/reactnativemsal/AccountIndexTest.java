@@ -0,0 +1,219 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AccountIndexTest {
+    private IMultipleAccountPublicClientApplication publicClientApplication;
+    private AccountIndex accountIndex;
+    private List<IAccount> storedAccounts;
+
+    @Before
+    public void setUp() throws Exception {
+        storedAccounts = new ArrayList<>();
+        publicClientApplication = mock(IMultipleAccountPublicClientApplication.class);
+        when(publicClientApplication.getAccounts()).thenAnswer(invocation -> new ArrayList<>(storedAccounts));
+        accountIndex = new AccountIndex(publicClientApplication);
+    }
+
+    @Test
+    public void isKnown_onlyTellsAccountsApartOnceBuilt() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+
+        assertFalse(accountIndex.isBuilt());
+        assertFalse(accountIndex.isKnown("a"));
+
+        accountIndex.getAccounts();
+        storedAccounts.add(makeAccount("b", "id-token-b"));
+        accountIndex.invalidate();
+
+        // Still answers from the index built before the invalidation
+        assertTrue(accountIndex.isBuilt());
+        assertTrue(accountIndex.isKnown("a"));
+        assertFalse(accountIndex.isKnown("b"));
+    }
+
+    @Test
+    public void getChangesSince_nullTokenResetsWithAllAccounts() throws Exception {
+        storedAccounts.addAll(Arrays.asList(makeAccount("a", "id-token-a"), makeAccount("b", "id-token-b")));
+
+        AccountIndex.Changes changes = accountIndex.getChangesSince(null);
+
+        assertTrue(changes.reset);
+        assertEquals(Arrays.asList("a", "b"), identifiers(changes.added));
+        assertTrue(changes.updated.isEmpty());
+        assertTrue(changes.removed.isEmpty());
+    }
+
+    @Test
+    public void getChangesSince_unchangedIsEmpty() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+
+        AccountIndex.Changes changes = accountIndex.getChangesSince(changeToken);
+
+        assertFalse(changes.reset);
+        assertTrue(changes.isEmpty());
+        assertEquals(changeToken, changes.changeToken);
+    }
+
+    @Test
+    public void getChangesSince_reportsAddedUpdatedAndRemoved() throws Exception {
+        storedAccounts.addAll(Arrays.asList(makeAccount("a", "id-token-a"), makeAccount("b", "id-token-b")));
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+
+        storedAccounts.clear();
+        storedAccounts.addAll(Arrays.asList(makeAccount("a", "id-token-a2"), makeAccount("c", "id-token-c")));
+        accountIndex.invalidate();
+        AccountIndex.Changes changes = accountIndex.getChangesSince(changeToken);
+
+        assertFalse(changes.reset);
+        assertEquals(Collections.singletonList("c"), identifiers(changes.added));
+        assertEquals(Collections.singletonList("a"), identifiers(changes.updated));
+        assertEquals(Collections.singletonList("b"), changes.removed);
+    }
+
+    @Test
+    public void getChangesSince_doesNotReadStorageUntilInvalidated() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+
+        storedAccounts.add(makeAccount("b", "id-token-b"));
+
+        assertTrue(accountIndex.getChangesSince(changeToken).isEmpty());
+    }
+
+    @Test
+    public void getChangesSince_tokenOfOtherIndexResets() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+        String otherChangeToken = new AccountIndex(publicClientApplication).getChangesSince(null).changeToken;
+
+        AccountIndex.Changes changes = accountIndex.getChangesSince(otherChangeToken);
+
+        assertTrue(changes.reset);
+        assertEquals(Collections.singletonList("a"), identifiers(changes.added));
+    }
+
+    @Test
+    public void getChangesSince_tokenOlderThanRememberedRemovalsResets() throws Exception {
+        for (int i = 0; i <= AccountIndex.MAX_REMOVALS; i++) {
+            storedAccounts.add(makeAccount("account-" + i, "id-token"));
+        }
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+
+        storedAccounts.clear();
+        accountIndex.invalidate();
+
+        assertTrue(accountIndex.getChangesSince(changeToken).reset);
+    }
+
+    @Test
+    public void getAccountsAfter_pagesInOrderOfIdentifier() throws Exception {
+        storedAccounts.addAll(Arrays.asList(
+                makeAccount("d", "id-token"),
+                makeAccount("b", "id-token"),
+                makeAccount("a", "id-token"),
+                makeAccount("c", "id-token"),
+                makeAccount("e", "id-token")));
+
+        assertEquals(Arrays.asList("a", "b"), identifiers(accountIndex.getAccountsAfter(null, 2)));
+        assertEquals(Arrays.asList("c", "d"), identifiers(accountIndex.getAccountsAfter("b", 2)));
+        assertEquals(Collections.singletonList("e"), identifiers(accountIndex.getAccountsAfter("d", 2)));
+        assertTrue(accountIndex.getAccountsAfter("e", 2).isEmpty());
+    }
+
+    @Test
+    public void getAccountsAfter_cursorSurvivesRemovalOfItsAccount() throws Exception {
+        storedAccounts.addAll(Arrays.asList(
+                makeAccount("a", "id-token"), makeAccount("b", "id-token"), makeAccount("c", "id-token")));
+        accountIndex.getAccountsAfter(null, 2);
+
+        storedAccounts.remove(1);
+        accountIndex.invalidate();
+
+        assertEquals(Collections.singletonList("c"), identifiers(accountIndex.getAccountsAfter("b", 2)));
+    }
+
+    @Test
+    public void getAccount_remembersAccountsFoundByOtherIdentifiers() throws Exception {
+        IAccount account = makeAccount("a", "id-token-a");
+        storedAccounts.add(account);
+        when(publicClientApplication.getAccount("a@example.com")).thenReturn(account);
+
+        assertSame(account, accountIndex.getAccount("a@example.com"));
+        assertSame(account, accountIndex.getAccount("a@example.com"));
+
+        verify(publicClientApplication, times(1)).getAccount("a@example.com");
+    }
+
+    @Test
+    public void getAccount_doesNotRememberMisses() throws Exception {
+        IAccount account = makeAccount("a", "id-token-a");
+
+        assertNull(accountIndex.getAccount("a@example.com"));
+        when(publicClientApplication.getAccount("a@example.com")).thenReturn(account);
+
+        assertSame(account, accountIndex.getAccount("a@example.com"));
+        verify(publicClientApplication, times(2)).getAccount("a@example.com");
+    }
+
+    @Test
+    public void update_replacesIndexedAccountWithoutReadingStorage() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+        IAccount renewed = makeAccount("a", "id-token-a2");
+
+        accountIndex.update(renewed);
+
+        assertSame(renewed, accountIndex.getAccount("a"));
+        assertEquals(Collections.singletonList(renewed), accountIndex.getAccounts());
+        assertEquals(Collections.singletonList(renewed), accountIndex.getChangesSince(changeToken).updated);
+        verify(publicClientApplication, times(1)).getAccounts();
+    }
+
+    @Test
+    public void update_ignoresAccountsNotInIndex() throws Exception {
+        storedAccounts.add(makeAccount("a", "id-token-a"));
+        String changeToken = accountIndex.getChangesSince(null).changeToken;
+
+        accountIndex.update(makeAccount("b", "id-token-b"));
+
+        assertEquals(Collections.singletonList("a"), identifiers(accountIndex.getAccounts()));
+        assertTrue(accountIndex.getChangesSince(changeToken).isEmpty());
+    }
+
+    private static IAccount makeAccount(String identifier, String idToken) {
+        IAccount account = mock(IAccount.class);
+        when(account.getId()).thenReturn(identifier);
+        when(account.getUsername()).thenReturn(identifier + "@contoso.com");
+        when(account.getTenantId()).thenReturn("tenant");
+        when(account.getIdToken()).thenReturn(idToken);
+        return account;
+    }
+
+    private static List<String> identifiers(List<IAccount> accounts) {
+        List<String> identifiers = new ArrayList<>();
+        for (IAccount account : accounts) {
+            identifiers.add(account.getId());
+        }
+        return identifiers;
+    }
+}
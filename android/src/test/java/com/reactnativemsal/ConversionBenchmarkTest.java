@@ -0,0 +1,169 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.IAuthenticationResult;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmarks of the conversions done on every call. Skipped unless run with the
+ * `rnmsal.benchmark` Gradle property (see android/build.gradle).
+ *
+ * Absolute numbers depend on the machine, so each benchmark is measured against a reference
+ * doing comparable work in the same run, mostly the generic org.json conversion of the same
+ * data, and fails if it is slower than the reference times `rnmsal.benchmarkTolerance`. The
+ * measured numbers and ratios are written to `rnmsal.benchmarkReport`. Maps and arrays are
+ * created through a mocked {@link Arguments}, so the numbers are only comparable with other runs
+ * of this harness.
+ */
+public class ConversionBenchmarkTest {
+    private static final int ITERATIONS = 2000;
+    private static final int ROUNDS = 5;
+
+    private static final Properties results = new Properties();
+    private static double tolerance;
+    private static MockedStatic<Arguments> arguments;
+
+    private static ReadableMap androidConfigOptions;
+    private static ReadableArray wids;
+    private static Map<String, Object> claims;
+    private static IAuthenticationResult result;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        assumeTrue("Run with -Prnmsal.benchmark to run benchmarks", Boolean.getBoolean("rnmsal.benchmark"));
+
+        tolerance = Double.parseDouble(System.getProperty("rnmsal.benchmarkTolerance", "2.0"));
+        arguments = JavaOnlyArguments.mock();
+
+        androidConfigOptions = ConversionFixtures.makeAndroidConfigOptions();
+        wids = ConversionFixtures.toReadableArray(ConversionFixtures.makeGuids(2, ConversionFixtures.WIDS_COUNT));
+        claims = ConversionFixtures.makeClaims();
+        result = ConversionFixtures.makeResult();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (arguments != null) {
+            arguments.close();
+        }
+
+        String reportPath = System.getProperty("rnmsal.benchmarkReport");
+        if (reportPath != null && !results.isEmpty()) {
+            File report = new File(reportPath);
+            report.getParentFile().mkdirs();
+            try (OutputStream stream = new FileOutputStream(report)) {
+                results.store(stream, "ns/op, and ratio to the reference, of " + ConversionBenchmarkTest.class.getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    public void toJsonObject_androidConfigOptions() throws Exception {
+        benchmark(
+                "toJsonObject.androidConfigOptions",
+                () -> ReadableMapUtils.toJsonObject(androidConfigOptions),
+                () -> new JSONObject(androidConfigOptions.toHashMap()),
+                tolerance);
+    }
+
+    @Test
+    public void toJsonArray_wids() throws Exception {
+        benchmark(
+                "toJsonArray.wids",
+                () -> ReadableMapUtils.toJsonArray(wids),
+                () -> new JSONArray(wids.toArrayList()),
+                tolerance);
+    }
+
+    @Test
+    public void makeAuthoritiesJsonArray_multipleAuthorities() throws Exception {
+        String authoritiesJson = RNMSALModule.makeAuthoritiesJsonArray(
+                ConversionFixtures.AUTHORITY_URLS, ConversionFixtures.DEFAULT_AUTHORITY).toString();
+        benchmark(
+                "makeAuthoritiesJsonArray.multipleAuthorities",
+                () -> RNMSALModule.makeAuthoritiesJsonArray(
+                        ConversionFixtures.AUTHORITY_URLS, ConversionFixtures.DEFAULT_AUTHORITY),
+                // Parsing the same authorities from JSON
+                () -> new JSONArray(authoritiesJson),
+                tolerance);
+    }
+
+    @Test
+    public void toWritableMap_claims() throws Exception {
+        benchmark(
+                "toWritableMap.claims",
+                () -> RNMSALModule.toWritableMap(claims),
+                () -> new JSONObject(claims),
+                tolerance);
+    }
+
+    @Test
+    public void toWritableArray_groups() throws Exception {
+        List<?> groups = (List<?>) claims.get("groups");
+        benchmark(
+                "toWritableArray.groups",
+                () -> RNMSALModule.toWritableArray(groups),
+                () -> new JSONArray(groups),
+                tolerance);
+    }
+
+    @Test
+    public void msalResultToDictionary_allFields() throws Exception {
+        // The claims are by far the largest part of the result
+        benchmark(
+                "msalResultToDictionary.allFields",
+                () -> RNMSALModule.msalResultToDictionary(result, ResultFields.ALL),
+                () -> RNMSALModule.toWritableMap(claims),
+                tolerance);
+    }
+
+    @Test
+    public void msalResultToDictionary_accessTokenOnly() throws Exception {
+        ResultFields fields = ResultFields.fromReadableArray(JavaOnlyArray.of("accessToken", "expiresOn"));
+        // Projecting the result to a few fields must be cheaper than converting all of them
+        benchmark(
+                "msalResultToDictionary.accessTokenOnly",
+                () -> RNMSALModule.msalResultToDictionary(result, fields),
+                () -> RNMSALModule.msalResultToDictionary(result, ResultFields.ALL),
+                1);
+    }
+
+    /**
+     * Fails if `body` is slower than `reference` times `maxRatio`
+     */
+    private static void benchmark(String name, MicroBenchmark.Body body, MicroBenchmark.Body reference, double maxRatio)
+            throws Exception {
+        double nanosPerOp = MicroBenchmark.measureNanosPerOp(body, ITERATIONS, ROUNDS);
+        double referenceNanosPerOp = MicroBenchmark.measureNanosPerOp(reference, ITERATIONS, ROUNDS);
+        double ratio = nanosPerOp / referenceNanosPerOp;
+        results.setProperty(name, String.format(Locale.ROOT, "%.0f", nanosPerOp));
+        results.setProperty(name + ".ratio", String.format(Locale.ROOT, "%.2f", ratio));
+        System.out.println(String.format(Locale.ROOT, "%s: %.0f ns/op, %.2f times the reference (%.0f ns/op)",
+                name, nanosPerOp, ratio, referenceNanosPerOp));
+
+        assertTrue(
+                String.format(Locale.ROOT, "%s took %.0f ns/op, %.2f times its reference (%.0f ns/op), more than %s",
+                        name, nanosPerOp, ratio, referenceNanosPerOp, maxRatio),
+                ratio <= maxRatio);
+    }
+}
@@ -0,0 +1,181 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Realistic inputs for the conversions done on every call: the claims of an enterprise account
+ * (many groups, roles and directory roles), and multi-authority configurations.
+ */
+final class ConversionFixtures {
+    static final String TENANT_ID = "72f988bf-86f1-41af-91ab-2d7cd011db47";
+    static final String ACCOUNT_ID = "00000000-0000-0000-66f3-3332eca7ea81." + TENANT_ID;
+    static final int GROUP_COUNT = 200;
+    static final int ROLE_COUNT = 20;
+    static final int WIDS_COUNT = 60;
+
+    static final String DEFAULT_AUTHORITY = "https://login.microsoftonline.com/" + TENANT_ID;
+    static final List<String> AUTHORITY_URLS = Arrays.asList(
+            "https://login.microsoftonline.com/common",
+            "https://login.microsoftonline.com/organizations",
+            "https://login.microsoftonline.com/consumers",
+            DEFAULT_AUTHORITY,
+            "https://contoso.b2clogin.com/tfp/contoso.onmicrosoft.com/B2C_1_SignUpSignIn",
+            "https://contoso.b2clogin.com/tfp/contoso.onmicrosoft.com/B2C_1_PasswordReset",
+            "https://contoso.b2clogin.com/tfp/contoso.onmicrosoft.com/B2C_1_ProfileEdit");
+
+    private ConversionFixtures() {}
+
+    static List<Object> makeGuids(long seed, int count) {
+        List<Object> guids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            guids.add(new UUID(seed, i).toString());
+        }
+        return guids;
+    }
+
+    static Map<String, Object> makeClaims() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("aud", "6731de76-14a6-49ae-97bc-6eba6914391e");
+        claims.put("iss", "https://login.microsoftonline.com/" + TENANT_ID + "/v2.0");
+        claims.put("iat", 1650000000);
+        claims.put("nbf", 1650000000);
+        claims.put("exp", 1650003600);
+        claims.put("name", "Megan Bowen");
+        claims.put("oid", "00000000-0000-0000-66f3-3332eca7ea81");
+        claims.put("preferred_username", "meganb@contoso.com");
+        claims.put("email_verified", true);
+        claims.put("tid", TENANT_ID);
+        claims.put("ver", "2.0");
+        claims.put("amr", new ArrayList<Object>(Arrays.asList("pwd", "mfa")));
+        claims.put("groups", makeGuids(1, GROUP_COUNT));
+        List<Object> roles = new ArrayList<>(ROLE_COUNT);
+        for (int i = 0; i < ROLE_COUNT; i++) {
+            roles.add("Application.Role" + i + ".ReadWrite");
+        }
+        claims.put("roles", roles);
+        claims.put("wids", makeGuids(2, WIDS_COUNT));
+
+        Map<String, Object> address = new HashMap<>();
+        address.put("street_address", "1 Microsoft Way");
+        address.put("locality", "Redmond");
+        address.put("region", "WA");
+        address.put("postal_code", "98052");
+        address.put("country", "US");
+        claims.put("address", address);
+
+        Map<String, Object> optionalClaims = new HashMap<>();
+        optionalClaims.put("xms_pl", "en-US");
+        optionalClaims.put("xms_tpl", "en-US");
+        optionalClaims.put("ctry", "US");
+        optionalClaims.put("fwd", null);
+        claims.put("xms_cc", optionalClaims);
+        return claims;
+    }
+
+    /**
+     * An `androidConfigOptions` map as passed from JS.
+     */
+    static ReadableMap makeAndroidConfigOptions() {
+        Map<String, Object> http = new HashMap<>();
+        http.put("connect_timeout", 10000);
+        http.put("read_timeout", 30000);
+
+        Map<String, Object> logging = new HashMap<>();
+        logging.put("pii_enabled", false);
+        logging.put("log_level", "WARNING");
+        logging.put("logcat_enabled", true);
+
+        Map<String, Object> options = new HashMap<>();
+        options.put("authorization_user_agent", "DEFAULT");
+        options.put("broker_redirect_uri_registered", false);
+        options.put("multiple_clouds_supported", true);
+        options.put("http", http);
+        options.put("logging", logging);
+        options.put("claims", makeClaims());
+        return toReadableMap(options);
+    }
+
+    @SuppressWarnings("unchecked")
+    static ReadableMap toReadableMap(Map<String, ?> map) {
+        JavaOnlyMap readableMap = new JavaOnlyMap();
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (value == null) {
+                readableMap.putNull(key);
+            } else if (value instanceof Boolean) {
+                readableMap.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Number) {
+                readableMap.putDouble(key, ((Number) value).doubleValue());
+            } else if (value instanceof String) {
+                readableMap.putString(key, (String) value);
+            } else if (value instanceof Map) {
+                readableMap.putMap(key, toReadableMap((Map<String, ?>) value));
+            } else if (value instanceof List) {
+                readableMap.putArray(key, toReadableArray((List<?>) value));
+            }
+        }
+        return readableMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ReadableArray toReadableArray(List<?> list) {
+        JavaOnlyArray readableArray = new JavaOnlyArray();
+        for (Object value : list) {
+            if (value == null) {
+                readableArray.pushNull();
+            } else if (value instanceof Boolean) {
+                readableArray.pushBoolean((Boolean) value);
+            } else if (value instanceof Number) {
+                readableArray.pushDouble(((Number) value).doubleValue());
+            } else if (value instanceof String) {
+                readableArray.pushString((String) value);
+            } else if (value instanceof Map) {
+                readableArray.pushMap(toReadableMap((Map<String, ?>) value));
+            } else if (value instanceof List) {
+                readableArray.pushArray(toReadableArray((List<?>) value));
+            }
+        }
+        return readableArray;
+    }
+
+    static IAccount makeAccount() {
+        IAccount account = Mockito.mock(IAccount.class);
+        Map<String, ?> claims = makeClaims();
+        when(account.getId()).thenReturn(ACCOUNT_ID);
+        when(account.getUsername()).thenReturn("meganb@contoso.com");
+        when(account.getTenantId()).thenReturn(TENANT_ID);
+        when(account.getIdToken()).thenReturn("eyJ0eXAiOiJKV1QiLCJhbGciOiJSUzI1NiJ9.e30.c2lnbmF0dXJl");
+        when(account.getClaims()).then(invocation -> claims);
+        return account;
+    }
+
+    static IAuthenticationResult makeResult() {
+        IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        IAccount account = makeAccount();
+        when(result.getAccessToken()).thenReturn("eyJ0eXAiOiJKV1QiLCJhbGciOiJSUzI1NiJ9.eyJzY3AiOiJVc2VyLlJlYWQifQ.c2ln");
+        when(result.getExpiresOn()).thenReturn(new Date(1650003600000L));
+        when(result.getTenantId()).thenReturn(TENANT_ID);
+        when(result.getAccount()).thenReturn(account);
+        when(result.getScope()).thenReturn(new String[] {"User.Read", "Mail.Read", "openid", "profile"});
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionTest {
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void toJsonObject_convertsNestedConfigOptions() throws Exception {
+        JSONObject json = ReadableMapUtils.toJsonObject(ConversionFixtures.makeAndroidConfigOptions());
+
+        assertEquals("DEFAULT", json.getString("authorization_user_agent"));
+        assertFalse(json.getBoolean("broker_redirect_uri_registered"));
+        assertEquals(10000, json.getJSONObject("http").getDouble("connect_timeout"), 0);
+        assertEquals("WARNING", json.getJSONObject("logging").getString("log_level"));
+
+        JSONObject claims = json.getJSONObject("claims");
+        assertEquals(ConversionFixtures.GROUP_COUNT, claims.getJSONArray("groups").length());
+        assertEquals(ConversionFixtures.WIDS_COUNT, claims.getJSONArray("wids").length());
+        assertEquals("Redmond", claims.getJSONObject("address").getString("locality"));
+        assertTrue(claims.getJSONObject("xms_cc").isNull("fwd"));
+    }
+
+    @Test
+    public void toJsonArray_convertsMixedValues() throws Exception {
+        ReadableArray array = ConversionFixtures.toReadableArray(Arrays.asList(
+                "a", 1, true, null, Collections.singletonMap("k", "v"), Collections.singletonList("nested")));
+
+        JSONArray json = ReadableMapUtils.toJsonArray(array);
+
+        assertEquals(6, json.length());
+        assertEquals("a", json.getString(0));
+        assertEquals(1, json.getDouble(1), 0);
+        assertTrue(json.getBoolean(2));
+        assertTrue(json.isNull(3));
+        assertEquals("v", json.getJSONObject(4).getString("k"));
+        assertEquals("nested", json.getJSONArray(5).getString(0));
+    }
+
+    @Test
+    public void makeAuthoritiesJsonArray_classifiesMultipleAuthorities() throws Exception {
+        JSONArray authorities = RNMSALModule.makeAuthoritiesJsonArray(
+                ConversionFixtures.AUTHORITY_URLS, ConversionFixtures.DEFAULT_AUTHORITY);
+
+        assertEquals(ConversionFixtures.AUTHORITY_URLS.size(), authorities.length());
+        assertEquals("AzureADandPersonalMicrosoftAccount", audienceType(authorities, 0));
+        assertEquals("AzureADMultipleOrgs", audienceType(authorities, 1));
+        assertEquals("PersonalMicrosoftAccount", audienceType(authorities, 2));
+        assertEquals("AzureADMyOrg", audienceType(authorities, 3));
+        assertEquals(
+                ConversionFixtures.TENANT_ID,
+                authorities.getJSONObject(3).getJSONObject("audience").getString("tenant_id"));
+        assertEquals("B2C", authorities.getJSONObject(4).getString("type"));
+        assertEquals(ConversionFixtures.AUTHORITY_URLS.get(4), authorities.getJSONObject(4).getString("authority_url"));
+
+        for (int i = 0; i < authorities.length(); i++) {
+            assertEquals(i == 3, authorities.getJSONObject(i).optBoolean("default"));
+        }
+    }
+
+    @Test
+    public void makeAuthoritiesJsonArray_defaultsToFirstAuthority() throws Exception {
+        JSONArray authorities = RNMSALModule.makeAuthoritiesJsonArray(
+                ConversionFixtures.AUTHORITY_URLS, "https://login.microsoftonline.com/other");
+
+        assertTrue(authorities.getJSONObject(0).optBoolean("default"));
+        assertFalse(authorities.getJSONObject(3).optBoolean("default"));
+    }
+
+    @Test
+    public void makeAuthoritiesJsonArray_rejectsUnknownAuthority() {
+        List<String> authorityUrls = Collections.singletonList("https://example.com/authority");
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RNMSALModule.makeAuthoritiesJsonArray(authorityUrls, authorityUrls.get(0)));
+    }
+
+    @Test
+    public void toWritableMap_convertsClaims() {
+        WritableMap claims = RNMSALModule.toWritableMap(ConversionFixtures.makeClaims());
+
+        assertEquals("Megan Bowen", claims.getString("name"));
+        assertEquals(1650003600, claims.getInt("exp"));
+        assertTrue(claims.getBoolean("email_verified"));
+        assertEquals(ConversionFixtures.GROUP_COUNT, claims.getArray("groups").size());
+        assertEquals(ConversionFixtures.ROLE_COUNT, claims.getArray("roles").size());
+        assertEquals(ConversionFixtures.WIDS_COUNT, claims.getArray("wids").size());
+        assertEquals("US", claims.getMap("address").getString("country"));
+        assertTrue(claims.getMap("xms_cc").isNull("fwd"));
+    }
+
+    @Test
+    public void toWritableArray_convertsNestedValues() {
+        WritableArray array = RNMSALModule.toWritableArray(Arrays.asList(
+                "a", 2.5, 3, false, null, Collections.singletonMap("k", "v"), Collections.singletonList("nested")));
+
+        assertEquals(7, array.size());
+        assertEquals("a", array.getString(0));
+        assertEquals(2.5, array.getDouble(1), 0);
+        assertEquals(3, array.getInt(2));
+        assertFalse(array.getBoolean(3));
+        assertTrue(array.isNull(4));
+        assertEquals("v", array.getMap(5).getString("k"));
+        assertEquals("nested", array.getArray(6).getString(0));
+    }
+
+    @Test
+    public void msalResultToDictionary_includesAllFieldsByDefault() {
+        WritableMap result = RNMSALModule.msalResultToDictionary(ConversionFixtures.makeResult(), ResultFields.ALL);
+
+        assertTrue(result.getString("accessToken").startsWith("eyJ"));
+        assertEquals("1650003600", result.getString("expiresOn"));
+        assertTrue(result.hasKey("idToken"));
+        assertEquals(4, result.getArray("scopes").size());
+        assertEquals(ConversionFixtures.TENANT_ID, result.getString("tenantId"));
+
+        ReadableMap account = result.getMap("account");
+        assertEquals(ConversionFixtures.ACCOUNT_ID, account.getString("identifier"));
+        assertEquals("meganb@contoso.com", account.getString("username"));
+        assertEquals(ConversionFixtures.GROUP_COUNT, account.getMap("claims").getArray("groups").size());
+    }
+
+    @Test
+    public void msalResultToDictionary_includesOnlyRequestedFields() {
+        ResultFields fields = ResultFields.fromReadableArray(JavaOnlyArray.of("accessToken", "account"));
+
+        WritableMap result = RNMSALModule.msalResultToDictionary(ConversionFixtures.makeResult(), fields);
+
+        Map<String, Object> map = result.toHashMap();
+        assertEquals(2, map.size());
+        assertTrue(result.hasKey("accessToken"));
+        ReadableMap account = result.getMap("account");
+        assertEquals(ConversionFixtures.ACCOUNT_ID, account.getString("identifier"));
+        assertTrue(account.hasKey("username"));
+        assertFalse(account.hasKey("claims"));
+    }
+
+    private static String audienceType(JSONArray authorities, int index) throws Exception {
+        JSONObject authority = authorities.getJSONObject(index);
+        assertEquals("AAD", authority.getString("type"));
+        return authority.getJSONObject("audience").getString("type");
+    }
+}
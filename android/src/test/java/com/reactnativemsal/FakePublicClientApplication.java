@@ -0,0 +1,196 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+import com.microsoft.identity.client.SilentAuthenticationCallback;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-process stand-in for MSAL's PCA, to drive RNMSALModule without a device or an identity
+ * provider. Silent requests and account removals complete on a timer thread after a random
+ * latency; silent requests fail at the configured rate, and otherwise succeed with tokens of the
+ * configured lifetime. Only the methods the module calls are faked, the others return defaults.
+ * The mocks don't record their invocations, so they can take any number of calls.
+ */
+final class FakePublicClientApplication {
+    static final String AUTHORITY = "https://login.microsoftonline.com/common";
+    static final String ERROR_CODE_INVALID_GRANT = "invalid_grant";
+    static final String ERROR_CODE_NO_ACCOUNT = "no_current_account";
+
+    private final IMultipleAccountPublicClientApplication publicClientApplication;
+    private final List<IAccount> accounts = new CopyOnWriteArrayList<>();
+    // Single threaded, so callbacks are as serialized as MSAL's, and mocks are only made on it
+    private final ScheduledExecutorService timer;
+    private final MsalServiceException invalidGrant;
+    private final MsalClientException noAccount;
+    private final AtomicInteger silentRequestCount = new AtomicInteger();
+
+    private volatile long minLatencyMillis = 0;
+    private volatile long maxLatencyMillis = 0;
+    private volatile double errorRate = 0;
+    private volatile long tokenLifetimeMillis = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * @param timerThreadFactory Makes the thread callbacks are called on
+     */
+    FakePublicClientApplication(int accountCount, ThreadFactory timerThreadFactory) throws Exception {
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(makeAccount(String.format("account-%05d", i)));
+        }
+
+        timer = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+
+        invalidGrant = mock(MsalServiceException.class);
+        when(invalidGrant.getErrorCode()).thenReturn(ERROR_CODE_INVALID_GRANT);
+        when(invalidGrant.getHttpStatusCode()).thenReturn(400);
+        noAccount = mock(MsalClientException.class);
+        when(noAccount.getErrorCode()).thenReturn(ERROR_CODE_NO_ACCOUNT);
+
+        publicClientApplication = mock(IMultipleAccountPublicClientApplication.class, withSettings().stubOnly());
+        // Read for the default authority of calls that don't pass one
+        PublicClientApplicationConfiguration configuration = mock(
+                PublicClientApplicationConfiguration.class,
+                withSettings().stubOnly().defaultAnswer(RETURNS_DEEP_STUBS));
+        when(configuration.getDefaultAuthority().getAuthorityURL()).thenReturn(new URL(AUTHORITY));
+        when(publicClientApplication.getConfiguration()).thenReturn(configuration);
+        when(publicClientApplication.getAccounts()).thenAnswer(invocation -> {
+            sleepLatency();
+            return new ArrayList<>(accounts);
+        });
+        when(publicClientApplication.getAccount(anyString())).thenAnswer(invocation -> {
+            sleepLatency();
+            return findAccount(invocation.getArgument(0));
+        });
+        doAnswer(invocation -> {
+            acquireTokenSilentAsync(invocation.getArgument(0));
+            return null;
+        }).when(publicClientApplication).acquireTokenSilentAsync(any());
+        doAnswer(invocation -> {
+            IAccount account = invocation.getArgument(0);
+            IMultipleAccountPublicClientApplication.RemoveAccountCallback callback = invocation.getArgument(1);
+            timer.schedule(() -> {
+                if (account != null && accounts.remove(account)) {
+                    callback.onRemoved();
+                } else {
+                    callback.onError(noAccount);
+                }
+            }, nextLatencyMillis(), TimeUnit.MILLISECONDS);
+            return null;
+        }).when(publicClientApplication).removeAccount(any(), any(IMultipleAccountPublicClientApplication.RemoveAccountCallback.class));
+    }
+
+    FakePublicClientApplication withLatency(long minLatencyMillis, long maxLatencyMillis) {
+        this.minLatencyMillis = minLatencyMillis;
+        this.maxLatencyMillis = Math.max(minLatencyMillis, maxLatencyMillis);
+        return this;
+    }
+
+    /**
+     * Fraction of silent requests which fail with {@link #ERROR_CODE_INVALID_GRANT}
+     */
+    FakePublicClientApplication withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    FakePublicClientApplication withTokenLifetime(long tokenLifetimeMillis) {
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        return this;
+    }
+
+    IMultipleAccountPublicClientApplication get() {
+        return publicClientApplication;
+    }
+
+    List<IAccount> getAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    int getSilentRequestCount() {
+        return silentRequestCount.get();
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void acquireTokenSilentAsync(AcquireTokenSilentParameters parameters) {
+        silentRequestCount.incrementAndGet();
+        SilentAuthenticationCallback callback = parameters.getCallback();
+        IAccount account = parameters.getAccount();
+        List<String> scopes = parameters.getScopes();
+        timer.schedule(() -> {
+            if (account == null || !accounts.contains(account)) {
+                callback.onError(noAccount);
+            } else if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                callback.onError(invalidGrant);
+            } else {
+                callback.onSuccess(makeResult(account, scopes));
+            }
+        }, nextLatencyMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private IAccount findAccount(String identifier) {
+        for (IAccount account : accounts) {
+            if (account.getId().equals(identifier)) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    private IAuthenticationResult makeResult(IAccount account, List<String> scopes) {
+        IAuthenticationResult result = mock(IAuthenticationResult.class, withSettings().stubOnly());
+        when(result.getAccessToken()).thenReturn("access-token-" + account.getId() + "-" + System.nanoTime());
+        when(result.getExpiresOn()).thenReturn(new Date(System.currentTimeMillis() + tokenLifetimeMillis));
+        when(result.getTenantId()).thenReturn(ConversionFixtures.TENANT_ID);
+        when(result.getAccount()).thenReturn(account);
+        when(result.getScope()).thenReturn(scopes.toArray(new String[0]));
+        return result;
+    }
+
+    static IAccount makeAccount(String identifier) {
+        IAccount account = mock(IAccount.class, withSettings().stubOnly());
+        when(account.getId()).thenReturn(identifier);
+        when(account.getUsername()).thenReturn(identifier + "@contoso.com");
+        when(account.getTenantId()).thenReturn(ConversionFixtures.TENANT_ID);
+        when(account.getIdToken()).thenReturn("id-token-" + identifier);
+        return account;
+    }
+
+    private long nextLatencyMillis() {
+        return minLatencyMillis + ThreadLocalRandom.current().nextLong(maxLatencyMillis - minLatencyMillis + 1);
+    }
+
+    // Reads of MSAL's storage block the calling thread
+    private void sleepLatency() throws InterruptedException {
+        long latencyMillis = nextLatencyMillis();
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+    }
+}
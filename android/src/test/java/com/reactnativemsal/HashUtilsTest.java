@@ -0,0 +1,24 @@
+package com.reactnativemsal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HashUtilsTest {
+    @Test
+    public void sha256Hex_matchesKnownDigests() throws Exception {
+        assertEquals(
+                "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                HashUtils.sha256Hex(""));
+        assertEquals(
+                "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                HashUtils.sha256Hex("abc"));
+    }
+
+    @Test
+    public void sha256Hex_encodesAsUtf8() throws Exception {
+        assertEquals(
+                "4a99557e4033c3539de2eb65472017cad5f9557f7a0625a09f1c3f6e2ba69c4c",
+                HashUtils.sha256Hex("\u00e9"));
+    }
+}
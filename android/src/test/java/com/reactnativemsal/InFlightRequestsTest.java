@@ -0,0 +1,42 @@
+package com.reactnativemsal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InFlightRequestsTest {
+    @Test
+    public void join_onlyFirstWaiterStartsTheRequest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+
+        assertTrue(requests.join("key", "first"));
+        assertFalse(requests.join("key", "second"));
+        assertTrue(requests.join("other-key", "third"));
+    }
+
+    @Test
+    public void complete_returnsWaitersInJoinOrder() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        requests.join("key", "first");
+        requests.join("key", "second");
+        requests.join("other-key", "third");
+
+        assertEquals(Arrays.asList("first", "second"), requests.complete("key"));
+        assertEquals(Collections.singletonList("third"), requests.complete("other-key"));
+    }
+
+    @Test
+    public void complete_endsTheRequest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        requests.join("key", "first");
+        requests.complete("key");
+
+        assertEquals(Collections.emptyList(), requests.complete("key"));
+        assertTrue(requests.join("key", "second"));
+    }
+}
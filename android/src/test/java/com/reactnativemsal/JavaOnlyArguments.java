@@ -0,0 +1,46 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes {@link Arguments} create Java-only maps and arrays, as the native ones need the React
+ * Native JNI library, which isn't loaded in JVM tests. The returned mock must be closed.
+ */
+final class JavaOnlyArguments {
+    private JavaOnlyArguments() {}
+
+    static MockedStatic<Arguments> mock() {
+        MockedStatic<Arguments> arguments = Mockito.mockStatic(Arguments.class);
+        arguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        arguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+        arguments.when(() -> Arguments.fromArray(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> JavaOnlyArray.of((Object[]) invocation.getArgument(0)));
+        return arguments;
+    }
+
+    /**
+     * Makes threads on which {@link Arguments} is mocked as by {@link #mock()} for as long as they
+     * run, since a static mock only applies to the thread that made it.
+     */
+    static ThreadFactory threadFactory(String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                try (MockedStatic<Arguments> arguments = mock()) {
+                    runnable.run();
+                }
+            }, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.reactnativemsal;
+
+import android.util.Base64;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class JwtClaimsCacheTest {
+    private static final String PAYLOAD = "{"
+            + "\"aud\":\"00000003-0000-0000-c000-000000000000\","
+            + "\"exp\":1700003600,"
+            + "\"iat\":1700000000,"
+            + "\"nbf\":1700000000,"
+            + "\"xms_big\":4102444800123,"
+            + "\"roles\":[\"Reader\",\"Writer\"],"
+            + "\"email_verified\":true,"
+            + "\"nickname\":null,"
+            + "\"address\":{\"locality\":\"Redmond\"}"
+            + "}";
+
+    private MockedStatic<Base64> base64;
+
+    @Before
+    public void setUp() {
+        // android.util.Base64 is only a stub in JVM tests
+        base64 = Mockito.mockStatic(Base64.class);
+        base64.when(() -> Base64.decode(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> java.util.Base64.getUrlDecoder().decode((String) invocation.getArgument(0)));
+    }
+
+    @After
+    public void tearDown() {
+        base64.close();
+    }
+
+    @Test
+    public void decode_keepsClaimTypes() throws Exception {
+        Map<String, Object> claims = JwtClaimsCache.decode(makeJwt(PAYLOAD));
+
+        assertEquals("00000003-0000-0000-c000-000000000000", claims.get("aud"));
+        assertEquals(1700003600, claims.get("exp"));
+        assertEquals(1700000000, claims.get("iat"));
+        assertEquals(4102444800123d, claims.get("xms_big"));
+        assertEquals(Arrays.asList("Reader", "Writer"), claims.get("roles"));
+        assertEquals(true, claims.get("email_verified"));
+        assertTrue(claims.containsKey("nickname"));
+        assertNull(claims.get("nickname"));
+        assertEquals("Redmond", ((Map<?, ?>) claims.get("address")).get("locality"));
+    }
+
+    @Test
+    public void decode_rejectsOpaqueTokens() {
+        assertThrows(IllegalArgumentException.class, () -> JwtClaimsCache.decode("opaque-access-token"));
+    }
+
+    @Test
+    public void getClaims_decodesEachTokenOnce() throws Exception {
+        JwtClaimsCache cache = new JwtClaimsCache();
+        String jwt = makeJwt(PAYLOAD);
+
+        Map<String, Object> first = cache.getClaims(jwt);
+        Map<String, Object> second = cache.getClaims(jwt);
+
+        assertSame(first, second);
+        base64.verify(() -> Base64.decode(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()));
+    }
+
+    @Test
+    public void getClaims_evictsLeastRecentlyUsed() throws Exception {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        List<String> jwts = Arrays.asList(
+                makeJwt("{\"sub\":\"a\"}"), makeJwt("{\"sub\":\"b\"}"), makeJwt("{\"sub\":\"c\"}"));
+
+        Map<String, Object> a = cache.getClaims(jwts.get(0));
+        cache.getClaims(jwts.get(1));
+        cache.getClaims(jwts.get(0));
+        cache.getClaims(jwts.get(2));
+
+        // b was the least recently used, so only it has to be decoded again
+        assertSame(a, cache.getClaims(jwts.get(0)));
+        cache.getClaims(jwts.get(1));
+        base64.verify(
+                () -> Base64.decode(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()),
+                Mockito.times(4));
+    }
+
+    private static String makeJwt(String payload) {
+        java.util.Base64.Encoder encoder = java.util.Base64.getUrlEncoder().withoutPadding();
+        Charset utf8 = Charset.forName("UTF-8");
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(utf8))
+                + "." + encoder.encodeToString(payload.getBytes(utf8))
+                + ".";
+    }
+}
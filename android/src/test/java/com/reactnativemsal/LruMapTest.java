@@ -0,0 +1,34 @@
+package com.reactnativemsal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LruMapTest {
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        LruMap<String, Integer> map = new LruMap<>(2);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+
+        map.put("c", 3);
+
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void put_keepsNothingWithoutEntries() {
+        LruMap<String, Integer> map = new LruMap<>(0);
+
+        map.put("a", 1);
+
+        assertTrue(map.isEmpty());
+        assertEquals(Collections.emptyList(), new ArrayList<>(map.keySet()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.IAuthenticationResult;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Mocked PCA whose silent requests and account removals wait until the test completes them, for
+ * tests of what the module does while they are in flight, and with each outcome. Unlike
+ * {@link FakePublicClientApplication}, the mock records its invocations, so they can be verified.
+ */
+final class ManualPublicClientApplication {
+    private final IMultipleAccountPublicClientApplication publicClientApplication;
+    private final List<IAccount> accounts = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<AcquireTokenSilentParameters> silentRequests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<AcquireTokenParameters> interactiveRequests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<IMultipleAccountPublicClientApplication.RemoveAccountCallback> removals =
+            new LinkedBlockingQueue<>();
+
+    ManualPublicClientApplication(String... accountIdentifiers) throws Exception {
+        for (String identifier : accountIdentifiers) {
+            accounts.add(FakePublicClientApplication.makeAccount(identifier));
+        }
+
+        publicClientApplication = mock(IMultipleAccountPublicClientApplication.class);
+        PublicClientApplicationConfiguration configuration = mock(
+                PublicClientApplicationConfiguration.class, withSettings().defaultAnswer(RETURNS_DEEP_STUBS));
+        when(configuration.getDefaultAuthority().getAuthorityURL())
+                .thenReturn(new URL(FakePublicClientApplication.AUTHORITY));
+        when(publicClientApplication.getConfiguration()).thenReturn(configuration);
+        when(publicClientApplication.getAccounts()).thenAnswer(invocation -> new ArrayList<>(accounts));
+        when(publicClientApplication.getAccount(anyString())).thenAnswer(invocation -> getAccount(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            silentRequests.add(invocation.getArgument(0));
+            return null;
+        }).when(publicClientApplication).acquireTokenSilentAsync(any());
+        doAnswer(invocation -> {
+            interactiveRequests.add(invocation.getArgument(0));
+            return null;
+        }).when(publicClientApplication).acquireToken(any(AcquireTokenParameters.class));
+        doAnswer(invocation -> {
+            removals.add(invocation.getArgument(1));
+            return null;
+        }).when(publicClientApplication).removeAccount(any(), any(IMultipleAccountPublicClientApplication.RemoveAccountCallback.class));
+    }
+
+    IMultipleAccountPublicClientApplication get() {
+        return publicClientApplication;
+    }
+
+    IAccount getAccount(String identifier) {
+        for (IAccount account : accounts) {
+            if (account.getId().equals(identifier)) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the account from the PCA's storage, as MSAL does before a removal completes
+     */
+    void removeStoredAccount(String identifier) {
+        accounts.remove(getAccount(identifier));
+    }
+
+    /**
+     * Waits for the next silent request to reach the PCA, whose callback completes it
+     */
+    AcquireTokenSilentParameters nextSilentRequest() throws InterruptedException {
+        AcquireTokenSilentParameters parameters =
+                silentRequests.poll(ModuleFixture.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (parameters == null) {
+            throw new AssertionError("No silent request reached the PCA");
+        }
+        return parameters;
+    }
+
+    /**
+     * Waits for the next interactive request to reach the PCA, whose callback completes it
+     */
+    AcquireTokenParameters nextInteractiveRequest() throws InterruptedException {
+        AcquireTokenParameters parameters =
+                interactiveRequests.poll(ModuleFixture.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (parameters == null) {
+            throw new AssertionError("No interactive request reached the PCA");
+        }
+        return parameters;
+    }
+
+    /**
+     * Silent requests that reached the PCA and that no test took with {@link #nextSilentRequest()}
+     */
+    int getPendingSilentRequestCount() {
+        return silentRequests.size();
+    }
+
+    /**
+     * Waits for the next account removal to reach the PCA, whose callback completes it
+     */
+    IMultipleAccountPublicClientApplication.RemoveAccountCallback nextRemoval() throws InterruptedException {
+        IMultipleAccountPublicClientApplication.RemoveAccountCallback callback =
+                removals.poll(ModuleFixture.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (callback == null) {
+            throw new AssertionError("No account removal reached the PCA");
+        }
+        return callback;
+    }
+
+    /**
+     * A token for the request's account and scopes, valid for an hour
+     */
+    static IAuthenticationResult makeResult(AcquireTokenSilentParameters parameters) {
+        return makeResult(parameters.getAccount(), parameters.getScopes());
+    }
+
+    /**
+     * A token for the account and scopes, valid for an hour
+     */
+    static IAuthenticationResult makeResult(IAccount account, List<String> scopes) {
+        IAuthenticationResult result = mock(IAuthenticationResult.class);
+        when(result.getAccessToken()).thenReturn("access-token-" + account.getId() + "-" + System.nanoTime());
+        when(result.getExpiresOn()).thenReturn(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+        when(result.getTenantId()).thenReturn(ConversionFixtures.TENANT_ID);
+        when(result.getAccount()).thenReturn(account);
+        when(result.getScope()).thenReturn(scopes.toArray(new String[0]));
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetricsTest {
+    private MockedStatic<Arguments> arguments;
+    private Metrics metrics;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+        metrics = new Metrics();
+    }
+
+    @After
+    public void tearDown() {
+        metrics.shutdown();
+        arguments.close();
+    }
+
+    @Test
+    public void track_recordsSuccessAndSettlesPromise() {
+        Promise promise = mock(Promise.class);
+
+        metrics.track("getAccounts", promise).resolve("result");
+
+        verify(promise).resolve("result");
+        ReadableMap stats = getMethodStats("getAccounts");
+        assertEquals(1, stats.getDouble("count"), 0);
+        assertEquals(0, stats.getDouble("errorCount"), 0);
+    }
+
+    @Test
+    public void track_recordsErrorsByCode() {
+        MsalUiRequiredException uiRequired = mock(MsalUiRequiredException.class);
+        when(uiRequired.getErrorCode()).thenReturn("invalid_grant");
+
+        metrics.track("acquireTokenSilent", mock(Promise.class)).reject(uiRequired);
+        metrics.track("acquireTokenSilent", mock(Promise.class)).reject(new IllegalStateException());
+        metrics.track("acquireTokenSilent", mock(Promise.class)).reject("timeout", "Timed out");
+
+        ReadableMap stats = getMethodStats("acquireTokenSilent");
+        assertEquals(3, stats.getDouble("count"), 0);
+        assertEquals(3, stats.getDouble("errorCount"), 0);
+        assertEquals(1, stats.getDouble("uiRequiredCount"), 0);
+        ReadableMap errorsByCode = stats.getMap("errorsByCode");
+        assertEquals(1, errorsByCode.getDouble("invalid_grant"), 0);
+        assertEquals(1, errorsByCode.getDouble("IllegalStateException"), 0);
+        assertEquals(1, errorsByCode.getDouble("timeout"), 0);
+    }
+
+    @Test
+    public void latency_percentilesOfRecentCalls() {
+        metrics = new Metrics(100);
+        // The oldest calls are dropped once more than 100 were recorded
+        for (int i = 0; i < 10; i++) {
+            metrics.record("acquireTokenSilent", TimeUnit.SECONDS.toNanos(60), null, false);
+        }
+        for (int i = 1; i <= 100; i++) {
+            metrics.record("acquireTokenSilent", TimeUnit.MILLISECONDS.toNanos(i), null, false);
+        }
+
+        ReadableMap latency = getMethodStats("acquireTokenSilent").getMap("latencyMs");
+        assertEquals(50, latency.getDouble("p50"), 0.001);
+        assertEquals(95, latency.getDouble("p95"), 0.001);
+        assertEquals(99, latency.getDouble("p99"), 0.001);
+        assertEquals(100, latency.getDouble("max"), 0.001);
+    }
+
+    @Test
+    public void increment_countsUntilReset() {
+        metrics.increment(Metrics.COUNTER_TOKEN_CACHE_HITS);
+        metrics.increment(Metrics.COUNTER_TOKEN_CACHE_HITS);
+        metrics.increment(Metrics.COUNTER_TOKEN_CACHE_MISSES);
+
+        ReadableMap counters = metrics.toWritableMap().getMap("counters");
+        assertEquals(2, counters.getDouble(Metrics.COUNTER_TOKEN_CACHE_HITS), 0);
+        assertEquals(1, counters.getDouble(Metrics.COUNTER_TOKEN_CACHE_MISSES), 0);
+
+        metrics.reset();
+
+        assertFalse(metrics.toWritableMap().getMap("counters").hasKey(Metrics.COUNTER_TOKEN_CACHE_HITS));
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        Promise promise = mock(Promise.class);
+        metrics.setEnabled(false);
+
+        assertSame(promise, metrics.track("getAccounts", promise));
+        metrics.increment(Metrics.COUNTER_TOKEN_CACHE_HITS);
+
+        ReadableMap map = metrics.toWritableMap();
+        assertFalse(map.getMap("methods").hasKey("getAccounts"));
+        assertFalse(map.getMap("counters").hasKey(Metrics.COUNTER_TOKEN_CACHE_HITS));
+    }
+
+    private ReadableMap getMethodStats(String method) {
+        return metrics.toWritableMap().getMap("methods").getMap(method);
+    }
+}
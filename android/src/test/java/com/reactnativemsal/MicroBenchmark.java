@@ -0,0 +1,38 @@
+package com.reactnativemsal;
+
+/**
+ * Minimal benchmark runner for JVM tests. Runs a warmup round so the code under test gets JIT
+ * compiled, then several timed rounds, and reports the fastest round, which is the least affected
+ * by noise from other processes.
+ */
+final class MicroBenchmark {
+    interface Body {
+        // The result is consumed so the JIT can't eliminate the work
+        Object run() throws Exception;
+    }
+
+    private static volatile int sink;
+
+    private MicroBenchmark() {}
+
+    static double measureNanosPerOp(Body body, int iterations, int rounds) throws Exception {
+        runRound(body, iterations);
+
+        double bestNanosPerOp = Double.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            runRound(body, iterations);
+            bestNanosPerOp = Math.min(bestNanosPerOp, (System.nanoTime() - start) / (double) iterations);
+        }
+        return bestNanosPerOp;
+    }
+
+    private static void runRound(Body body, int iterations) throws Exception {
+        int hash = 0;
+        for (int i = 0; i < iterations; i++) {
+            Object result = body.run();
+            hash += result != null ? System.identityHashCode(result) : 0;
+        }
+        sink = hash;
+    }
+}
@@ -0,0 +1,81 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An RNMSALModule on a mocked React context, whose PCAs are made by the given factory. The native
+ * modules queue is a real thread, as are the module's executor threads, and {@link Arguments} is
+ * mocked as by {@link JavaOnlyArguments} on all of them. Must be closed after each test.
+ */
+final class ModuleFixture {
+    static final long TIMEOUT_MILLIS = 5000;
+
+    private final MockedStatic<Arguments> arguments;
+    private final ExecutorService modulesThread;
+    private final ExecutorService executor;
+    private final RNMSALModule module;
+
+    /**
+     * @param executorThreadCount Threads of the module's executor, 1 to run the calls that reach
+     *     the PCA in the order they were made
+     */
+    ModuleFixture(int executorThreadCount, PublicClientApplicationFactory publicClientApplicationFactory) {
+        arguments = JavaOnlyArguments.mock();
+        modulesThread = Executors.newSingleThreadExecutor(JavaOnlyArguments.threadFactory("modules"));
+        executor = Executors.newFixedThreadPool(executorThreadCount, JavaOnlyArguments.threadFactory("RNMSAL"));
+
+        ReactApplicationContext reactContext = mock(ReactApplicationContext.class);
+        when(reactContext.getApplicationContext()).thenReturn(reactContext);
+        doAnswer(invocation -> {
+            modulesThread.execute(invocation.getArgument(0));
+            // Returns a boolean in newer React Native versions
+            return invocation.getMethod().getReturnType() == boolean.class ? true : null;
+        }).when(reactContext).runOnNativeModulesQueueThread(any());
+
+        module = new RNMSALModule(reactContext, executor, publicClientApplicationFactory);
+    }
+
+    RNMSALModule getModule() {
+        return module;
+    }
+
+    /**
+     * Runs on the native modules thread and waits for it, like the bridge, which calls the module's
+     * methods there
+     */
+    void onModulesThread(Runnable runnable) throws Exception {
+        modulesThread.submit(runnable).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a client for the config and waits until it exists
+     */
+    void createPublicClientApplication(String handle, JavaOnlyMap config) throws Exception {
+        Promise init = mock(Promise.class);
+        onModulesThread(() -> module.createPublicClientApplication(config, handle, init));
+        verify(init, timeout(TIMEOUT_MILLIS)).resolve(handle);
+    }
+
+    void close() {
+        module.onCatalystInstanceDestroy();
+        executor.shutdownNow();
+        modulesThread.shutdownNow();
+        arguments.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Promise;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class PendingCallsTest {
+    private PendingCalls pendingCalls;
+
+    @Before
+    public void setUp() {
+        pendingCalls = new PendingCalls();
+    }
+
+    @After
+    public void tearDown() {
+        pendingCalls.shutdown();
+    }
+
+    @Test
+    public void watch_returnsPromiseWithoutDeadlineOrRequestId() {
+        Promise promise = mock(Promise.class);
+
+        assertSame(promise, pendingCalls.watch(promise, null, 0));
+    }
+
+    @Test
+    public void watch_rejectsAfterDeadlineAndDropsLateResult() {
+        Promise promise = mock(Promise.class);
+        Promise watched = pendingCalls.watch(promise, null, 20);
+
+        verify(promise, timeout(1000)).reject(eq(PendingCalls.ERROR_CODE_TIMEOUT), anyString());
+        assertTrue(PendingCalls.isSettled(watched));
+        watched.resolve("late");
+
+        verify(promise, never()).resolve(any());
+    }
+
+    @Test
+    public void watch_resultBeforeDeadlineIsDelivered() throws Exception {
+        Promise promise = mock(Promise.class);
+        Promise watched = pendingCalls.watch(promise, null, 20);
+
+        watched.resolve("result");
+        Thread.sleep(100);
+
+        verify(promise).resolve("result");
+        verify(promise, never()).reject(anyString(), anyString());
+    }
+
+    @Test
+    public void cancel_rejectsPendingCallOnce() {
+        Promise promise = mock(Promise.class);
+        Promise watched = pendingCalls.watch(promise, "request", 0);
+
+        assertTrue(pendingCalls.cancel("request"));
+        assertFalse(pendingCalls.cancel("request"));
+        watched.resolve("late");
+
+        verify(promise).reject(eq(PendingCalls.ERROR_CODE_CANCELLED), anyString());
+        verify(promise, never()).resolve(any());
+    }
+
+    @Test
+    public void watch_rejectsDuplicateRequestIdOfPendingCall() {
+        Promise first = mock(Promise.class);
+        Promise second = mock(Promise.class);
+        Promise watchedFirst = pendingCalls.watch(first, "request", 0);
+
+        pendingCalls.watch(second, "request", 0);
+
+        verify(second).reject(eq(PendingCalls.ERROR_CODE_DUPLICATE_REQUEST_ID), anyString());
+        // A settled call frees its request id
+        watchedFirst.resolve("result");
+        Promise third = mock(Promise.class);
+        pendingCalls.watch(third, "request", 0);
+        verify(third, never()).reject(anyString(), anyString());
+        assertTrue(pendingCalls.cancel("request"));
+    }
+}
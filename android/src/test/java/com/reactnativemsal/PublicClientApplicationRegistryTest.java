@@ -0,0 +1,52 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class PublicClientApplicationRegistryTest {
+    // The registry is process-wide, so each test uses keys of its own
+    private final String configKey = UUID.randomUUID().toString();
+
+    @Test
+    public void getOrCreate_reusesPcaOfSameConfig() throws Exception {
+        IMultipleAccountPublicClientApplication first = getOrCreate();
+
+        assertSame(first, getOrCreate());
+        assertNotSame(first, PublicClientApplicationRegistry.getOrCreate(
+                UUID.randomUUID().toString(), () -> mock(IMultipleAccountPublicClientApplication.class)));
+    }
+
+    @Test
+    public void release_removesPcaOnceNoClientUsesIt() throws Exception {
+        IMultipleAccountPublicClientApplication first = getOrCreate();
+        getOrCreate();
+
+        PublicClientApplicationRegistry.release(first);
+        assertSame(first, getOrCreate());
+        PublicClientApplicationRegistry.release(first);
+        PublicClientApplicationRegistry.release(first);
+
+        assertNotSame(first, getOrCreate());
+    }
+
+    @Test
+    public void detach_keepsPcaForReload() throws Exception {
+        IMultipleAccountPublicClientApplication first = getOrCreate();
+
+        PublicClientApplicationRegistry.detach(first);
+
+        assertSame(first, getOrCreate());
+    }
+
+    private IMultipleAccountPublicClientApplication getOrCreate() throws Exception {
+        return PublicClientApplicationRegistry.getOrCreate(
+                configKey, () -> mock(IMultipleAccountPublicClientApplication.class));
+    }
+}
@@ -0,0 +1,145 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * acquireTokenSilentBatch settles with one result or error per request, in order, each error
+ * with the code of its own failure.
+ */
+public class RNMSALModuleBatchTest {
+    private static final String HANDLE = "batch";
+    private static final String ACCOUNT = "account-00000";
+    private static final String OTHER_ACCOUNT = "account-00001";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+    // Released by tests to let creating the client finish
+    private CountDownLatch initCanFinish;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT, OTHER_ACCOUNT);
+        initCanFinish = new CountDownLatch(1);
+        fixture = new ModuleFixture(1, (context, config) -> {
+            initCanFinish.await();
+            return pca.get();
+        });
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        initCanFinish.countDown();
+        fixture.close();
+    }
+
+    @Test
+    public void mixedOutcomes_keepEachErrorCode() throws Exception {
+        initCanFinish.countDown();
+        fixture.createPublicClientApplication(HANDLE, JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "batch-test")));
+        JavaOnlyMap timingOut = makeSilentParams(ACCOUNT, "Mail.Read");
+        timingOut.putDouble("timeoutMs", 20);
+
+        CompletableFuture<Object> batch = acquireTokenSilentBatch(
+                makeSilentParams(ACCOUNT, "User.Read"),
+                makeSilentParams(OTHER_ACCOUNT, "User.Read"),
+                timingOut);
+        for (int i = 0; i < 3; i++) {
+            AcquireTokenSilentParameters request = pca.nextSilentRequest();
+            if (request.getAccount().getId().equals(OTHER_ACCOUNT)) {
+                request.getCallback().onError(serviceException("invalid_grant"));
+            } else if (request.getScopes().contains("User.Read")) {
+                request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+            }
+        }
+
+        ReadableArray results = (ReadableArray) batch.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(3, results.size());
+        ReadableMap succeeded = results.getMap(0);
+        assertFalse(succeeded.hasKey("error"));
+        assertTrue(succeeded.getMap("result").getString("accessToken").startsWith("access-token-" + ACCOUNT));
+        assertEquals("invalid_grant", results.getMap(1).getMap("error").getString("code"));
+        assertEquals(PendingCalls.ERROR_CODE_TIMEOUT, results.getMap(2).getMap("error").getString("code"));
+    }
+
+    @Test
+    public void invalidRequest_failsOnlyItsOwnItem() throws Exception {
+        initCanFinish.countDown();
+        fixture.createPublicClientApplication(HANDLE, JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "batch-test")));
+
+        CompletableFuture<Object> batch = acquireTokenSilentBatch(
+                JavaOnlyMap.of("scopes", JavaOnlyArray.of("User.Read")),
+                makeSilentParams(ACCOUNT, "User.Read"));
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+
+        ReadableArray results = (ReadableArray) batch.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(NullPointerException.class.getSimpleName(), results.getMap(0).getMap("error").getString("code"));
+        assertTrue(results.getMap(1).hasKey("result"));
+    }
+
+    @Test
+    public void batchMadeDuringInit_isHeldUntilClientIsCreated() throws Exception {
+        Promise init = mock(Promise.class);
+        fixture.onModulesThread(() -> module.createPublicClientApplication(
+                JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "batch-test")), HANDLE, init));
+
+        CompletableFuture<Object> batch = acquireTokenSilentBatch(makeSilentParams(ACCOUNT, "User.Read"));
+        Thread.sleep(50);
+        assertEquals(0, pca.getPendingSilentRequestCount());
+        initCanFinish.countDown();
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+
+        ReadableArray results = (ReadableArray) batch.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertTrue(results.getMap(0).hasKey("result"));
+    }
+
+    private CompletableFuture<Object> acquireTokenSilentBatch(JavaOnlyMap... requests) throws Exception {
+        CompletableFuture<Object> resolved = new CompletableFuture<>();
+        Promise promise = mock(Promise.class);
+        doAnswer(invocation -> resolved.complete(invocation.getArgument(0))).when(promise).resolve(any());
+        doAnswer(invocation -> resolved.completeExceptionally(invocation.getArgument(0)))
+                .when(promise).reject(any(Throwable.class));
+        JavaOnlyArray params = JavaOnlyArray.of((Object[]) requests);
+        fixture.onModulesThread(() -> module.acquireTokenSilentBatch(HANDLE, params, promise));
+        return resolved;
+    }
+
+    private static JavaOnlyMap makeSilentParams(String accountIdentifier, String scope) {
+        return JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of(scope),
+                "account", JavaOnlyMap.of("identifier", accountIdentifier));
+    }
+
+    private static MsalServiceException serviceException(String errorCode) {
+        MsalServiceException exception = mock(MsalServiceException.class);
+        when(exception.getErrorCode()).thenReturn(errorCode);
+        when(exception.getHttpStatusCode()).thenReturn(400);
+        return exception;
+    }
+}
@@ -0,0 +1,97 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * getCachedAccessTokenSync only answers from the in-memory token cache, for the client, account
+ * and scopes the token was acquired for.
+ */
+public class RNMSALModuleCachedTokenTest {
+    private static final String HANDLE = "cached";
+    private static final String ACCOUNT = "account-00000";
+    private static final String OTHER_ACCOUNT = "account-00001";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT, OTHER_ACCOUNT);
+        fixture = new ModuleFixture(1, (context, config) -> pca.get());
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void withoutClient_returnsNull() throws Exception {
+        assertNull(module.getCachedAccessTokenSync(null, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+        assertNull(module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+    }
+
+    @Test
+    public void beforeAnySilentCall_returnsNull() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+
+        assertNull(module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+    }
+
+    @Test
+    public void afterSilentCall_returnsItsToken() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+        String accessToken = acquireTokenSilent(ACCOUNT, "User.Read");
+
+        assertEquals(accessToken, module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+        // The default client is the one created last
+        assertEquals(accessToken, module.getCachedAccessTokenSync(null, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+    }
+
+    @Test
+    public void otherAccountOrScopes_returnNull() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+        acquireTokenSilent(ACCOUNT, "User.Read");
+
+        assertNull(module.getCachedAccessTokenSync(HANDLE, OTHER_ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+        assertNull(module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("Mail.Read"), null));
+        assertNull(module.getCachedAccessTokenSync("other", ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+    }
+
+    private String acquireTokenSilent(String accountIdentifier, String scope) throws Exception {
+        CompletableFuture<Object> resolved = new CompletableFuture<>();
+        Promise promise = mock(Promise.class);
+        doAnswer(invocation -> resolved.complete(invocation.getArgument(0))).when(promise).resolve(any());
+        JavaOnlyMap params = JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of(scope),
+                "account", JavaOnlyMap.of("identifier", accountIdentifier));
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, params, promise));
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+        return ((ReadableMap) resolved.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).getString("accessToken");
+    }
+
+    private static JavaOnlyMap makeConfig() {
+        return JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "cached-test"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Clients created with different handles are independent, except that clients sharing a PCA see
+ * each other's account changes.
+ */
+public class RNMSALModuleClientsTest {
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication firstPca;
+    private ManualPublicClientApplication secondPca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        firstPca = new ManualPublicClientApplication(ACCOUNT);
+        secondPca = new ManualPublicClientApplication(ACCOUNT);
+        // One PCA per client id, like identical configs share one through the registry
+        fixture = new ModuleFixture(1, (context, config) ->
+                config.getMap("auth").getString("clientId").equals("first") ? firstPca.get() : secondPca.get());
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void callsReachTheClientOfTheirHandle() throws Exception {
+        fixture.createPublicClientApplication("a", makeConfig("first"));
+        fixture.createPublicClientApplication("b", makeConfig("second"));
+
+        CompletableFuture<Object> silent = call(promise -> module.acquireTokenSilent("b", makeSilentParams(), promise));
+        AcquireTokenSilentParameters request = secondPca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+        silent.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        verify(firstPca.get(), never()).acquireTokenSilentAsync(any());
+        // Each client has its own token cache
+        assertNull(module.getCachedAccessTokenSync("a", ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+        assertTrue(module.getCachedAccessTokenSync("b", ACCOUNT, JavaOnlyArray.of("User.Read"), null) != null);
+    }
+
+    @Test
+    public void existingHandle_isRejected() throws Exception {
+        fixture.createPublicClientApplication("a", makeConfig("first"));
+
+        Throwable error = getError(call(promise ->
+                module.createPublicClientApplication(makeConfig("second"), "a", promise)));
+
+        assertTrue(error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void disposedHandle_isRejectedWhileOthersKeepWorking() throws Exception {
+        fixture.createPublicClientApplication("a", makeConfig("first"));
+        fixture.createPublicClientApplication("b", makeConfig("second"));
+
+        assertEquals(true, call(promise -> module.dispose("a", promise)).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        assertTrue(getError(call(promise -> module.getAccounts("a", null, promise))) instanceof IllegalStateException);
+        ReadableArray accounts = (ReadableArray) call(promise -> module.getAccounts("b", null, promise))
+                .get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(1, accounts.size());
+    }
+
+    @Test
+    public void removeAccount_isSeenByClientsSharingThePca() throws Exception {
+        fixture.createPublicClientApplication("a", makeConfig("first"));
+        fixture.createPublicClientApplication("b", makeConfig("first"));
+        String changeToken = getAccountsSince("b", null).getString("changeToken");
+
+        CompletableFuture<Object> removed = call(promise ->
+                module.removeAccount("a", JavaOnlyMap.of("identifier", ACCOUNT), promise));
+        IMultipleAccountPublicClientApplication.RemoveAccountCallback removal = firstPca.nextRemoval();
+        firstPca.removeStoredAccount(ACCOUNT);
+        removal.onRemoved();
+        removed.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        ReadableArray removedAccounts = getAccountsSince("b", changeToken).getArray("removed");
+        assertEquals(1, removedAccounts.size());
+        assertEquals(ACCOUNT, removedAccounts.getString(0));
+    }
+
+    private ReadableMap getAccountsSince(String handle, String changeToken) throws Exception {
+        return (ReadableMap) call(promise -> module.getAccountsSince(handle, changeToken, null, promise))
+                .get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<Object> call(Consumer<Promise> method) throws Exception {
+        CompletableFuture<Object> settled = new CompletableFuture<>();
+        Promise promise = mock(Promise.class);
+        doAnswer(invocation -> settled.complete(invocation.getArgument(0))).when(promise).resolve(any());
+        doAnswer(invocation -> settled.completeExceptionally(invocation.getArgument(0)))
+                .when(promise).reject(any(Throwable.class));
+        fixture.onModulesThread(() -> method.accept(promise));
+        return settled;
+    }
+
+    private static Throwable getError(CompletableFuture<Object> call) throws Exception {
+        try {
+            call.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The call succeeded");
+        return null;
+    }
+
+    private static JavaOnlyMap makeConfig(String clientId) {
+        return JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", clientId));
+    }
+
+    private static JavaOnlyMap makeSilentParams() {
+        return JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "account", JavaOnlyMap.of("identifier", ACCOUNT));
+    }
+}
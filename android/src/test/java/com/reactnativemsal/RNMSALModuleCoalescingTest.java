@@ -0,0 +1,127 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent identical silent calls share one call into MSAL, and all settle with its outcome.
+ */
+public class RNMSALModuleCoalescingTest {
+    private static final String HANDLE = "coalescing";
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT);
+        fixture = new ModuleFixture(1, (context, config) -> pca.get());
+        module = fixture.getModule();
+        fixture.createPublicClientApplication(HANDLE, JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "coalescing-test")));
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void identicalCalls_shareOneRequest() throws Exception {
+        CompletableFuture<Object> first = acquireTokenSilent("User.Read");
+        CompletableFuture<Object> second = acquireTokenSilent("User.Read");
+
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+
+        ReadableMap firstResult = (ReadableMap) first.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        ReadableMap secondResult = (ReadableMap) second.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(firstResult.getString("accessToken"), secondResult.getString("accessToken"));
+        assertEquals(0, pca.getPendingSilentRequestCount());
+        assertEquals(1, getCounter(Metrics.COUNTER_COALESCED_SILENT_REQUESTS));
+    }
+
+    @Test
+    public void identicalCalls_shareTheError() throws Exception {
+        CompletableFuture<Object> first = acquireTokenSilent("User.Read");
+        CompletableFuture<Object> second = acquireTokenSilent("User.Read");
+        MsalServiceException invalidGrant = mock(MsalServiceException.class);
+        when(invalidGrant.getErrorCode()).thenReturn("invalid_grant");
+
+        pca.nextSilentRequest().getCallback().onError(invalidGrant);
+
+        assertSame(invalidGrant, getError(first));
+        assertSame(invalidGrant, getError(second));
+    }
+
+    @Test
+    public void callsForOtherScopes_areNotShared() throws Exception {
+        CompletableFuture<Object> userRead = acquireTokenSilent("User.Read");
+        CompletableFuture<Object> mailRead = acquireTokenSilent("Mail.Read");
+
+        for (int i = 0; i < 2; i++) {
+            AcquireTokenSilentParameters request = pca.nextSilentRequest();
+            request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+        }
+
+        userRead.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        mailRead.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(0, getCounter(Metrics.COUNTER_COALESCED_SILENT_REQUESTS));
+    }
+
+    // Waits until the call has joined, or started, its request, which the module does on the
+    // native modules thread
+    private CompletableFuture<Object> acquireTokenSilent(String scope) throws Exception {
+        CompletableFuture<Object> settled = new CompletableFuture<>();
+        Promise promise = mock(Promise.class);
+        doAnswer(invocation -> settled.complete(invocation.getArgument(0))).when(promise).resolve(any());
+        doAnswer(invocation -> settled.completeExceptionally(invocation.getArgument(0)))
+                .when(promise).reject(any(Throwable.class));
+        JavaOnlyMap params = JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of(scope),
+                "account", JavaOnlyMap.of("identifier", ACCOUNT));
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, params, promise));
+        return settled;
+    }
+
+    private static Throwable getError(CompletableFuture<Object> call) throws Exception {
+        try {
+            call.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The call succeeded");
+        return null;
+    }
+
+    private long getCounter(String counter) throws Exception {
+        CompletableFuture<Object> resolved = new CompletableFuture<>();
+        Promise promise = mock(Promise.class);
+        doAnswer(invocation -> resolved.complete(invocation.getArgument(0))).when(promise).resolve(any());
+        fixture.onModulesThread(() -> module.getMetrics(promise));
+        ReadableMap counters = ((ReadableMap) resolved.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).getMap("counters");
+        return counters.hasKey(counter) ? (long) counters.getDouble(counter) : 0;
+    }
+}
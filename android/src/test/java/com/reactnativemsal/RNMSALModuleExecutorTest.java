@@ -0,0 +1,114 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.microsoft.identity.client.IAccount;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * MSAL calls which block on storage run on the module's executor, so that they don't hold up the
+ * native modules thread, which all modules share.
+ */
+public class RNMSALModuleExecutorTest {
+    private static final String HANDLE = "executor";
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+    // Names of the threads that called into the PCA, or its factory
+    private List<String> callingThreads;
+    // Released by tests to let reading accounts from storage finish
+    private CountDownLatch storageCanFinish;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT);
+        callingThreads = new CopyOnWriteArrayList<>();
+        storageCanFinish = new CountDownLatch(1);
+        List<IAccount> accounts = new ArrayList<>();
+        accounts.add(pca.getAccount(ACCOUNT));
+        when(pca.get().getAccounts()).thenAnswer(invocation -> {
+            callingThreads.add(Thread.currentThread().getName());
+            storageCanFinish.await();
+            return accounts;
+        });
+        fixture = new ModuleFixture(1, (context, config) -> {
+            callingThreads.add(Thread.currentThread().getName());
+            return pca.get();
+        });
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        storageCanFinish.countDown();
+        fixture.close();
+    }
+
+    @Test
+    public void createPublicClientApplication_createsClientOnExecutor() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+
+        assertOnExecutor(callingThreads);
+    }
+
+    @Test
+    public void getAccounts_leavesModulesThreadFree() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+        Promise accounts = mock(Promise.class);
+        fixture.onModulesThread(() -> module.getAccounts(HANDLE, null, accounts));
+
+        // Would time out if reading storage held up the native modules thread
+        fixture.onModulesThread(() -> module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("User.Read"), null));
+        verify(accounts, never()).resolve(any());
+
+        storageCanFinish.countDown();
+        verify(accounts, timeout(TIMEOUT_MILLIS)).resolve(any());
+        assertOnExecutor(callingThreads);
+    }
+
+    @Test
+    public void acquireTokenSilent_looksUpAccountOnExecutor() throws Exception {
+        fixture.createPublicClientApplication(HANDLE, makeConfig());
+        Promise silent = mock(Promise.class);
+
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "account", JavaOnlyMap.of("identifier", ACCOUNT)), silent));
+        storageCanFinish.countDown();
+
+        pca.nextSilentRequest();
+        assertOnExecutor(callingThreads);
+    }
+
+    private static void assertOnExecutor(List<String> threadNames) {
+        assertFalse(threadNames.isEmpty());
+        for (String threadName : threadNames) {
+            assertTrue(threadName, threadName.startsWith("RNMSAL-"));
+        }
+    }
+
+    private static JavaOnlyMap makeConfig() {
+        return JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "executor-test"));
+    }
+}
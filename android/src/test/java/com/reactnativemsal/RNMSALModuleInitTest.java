@@ -0,0 +1,168 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.microsoft.identity.client.IAccount;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Calls made while createPublicClientApplication is still creating the client: they are held,
+ * and run in order once it exists, or rejected with its error. Their deadlines and cancellation
+ * cover the wait.
+ */
+public class RNMSALModuleInitTest {
+    private static final String HANDLE = "init";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private FakePublicClientApplication fake;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+    // Released by tests to let creating the client finish
+    private CountDownLatch initCanFinish;
+    private Exception initError;
+
+    @Before
+    public void setUp() throws Exception {
+        fake = new FakePublicClientApplication(5, JavaOnlyArguments.threadFactory("FakeMSAL"));
+        initCanFinish = new CountDownLatch(1);
+        // Single threaded, so that released calls reach the fake in the order they were made
+        fixture = new ModuleFixture(1, (context, config) -> {
+            initCanFinish.await();
+            if (initError != null) {
+                throw initError;
+            }
+            return fake.get();
+        });
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        initCanFinish.countDown();
+        fixture.close();
+        fake.shutdown();
+    }
+
+    @Test
+    public void heldCalls_runInOrderOnceClientIsCreated() throws Exception {
+        Promise init = createPublicClientApplication();
+        List<String> resolved = Collections.synchronizedList(new ArrayList<>());
+        List<String> expected = new ArrayList<>();
+        CountDownLatch settled = new CountDownLatch(fake.getAccounts().size());
+        for (IAccount account : fake.getAccounts()) {
+            expected.add(account.getId());
+            Promise promise = mock(Promise.class);
+            doAnswer(invocation -> {
+                resolved.add(account.getId());
+                settled.countDown();
+                return null;
+            }).when(promise).resolve(any());
+            onModulesThread(() -> module.acquireTokenSilent(HANDLE, makeSilentParams(account.getId()), promise));
+        }
+
+        Thread.sleep(100);
+        assertTrue(resolved.isEmpty());
+        assertEquals(0, fake.getSilentRequestCount());
+
+        initCanFinish.countDown();
+
+        verify(init, timeout(TIMEOUT_MILLIS)).resolve(HANDLE);
+        assertTrue(settled.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(expected, resolved);
+    }
+
+    @Test
+    public void heldCalls_areRejectedWithInitError() throws Exception {
+        initError = new IllegalArgumentException("clientId is required");
+        Promise init = createPublicClientApplication();
+        Promise silent = mock(Promise.class);
+        Promise accounts = mock(Promise.class);
+        JavaOnlyMap silentParams = makeSilentParams(fake.getAccounts().get(0).getId());
+        silentParams.putDouble("timeoutMs", TIMEOUT_MILLIS * 2);
+        silentParams.putString("requestId", "silent");
+        onModulesThread(() -> {
+            module.acquireTokenSilent(HANDLE, silentParams, silent);
+            module.getAccounts(HANDLE, null, accounts);
+        });
+
+        initCanFinish.countDown();
+
+        verify(init, timeout(TIMEOUT_MILLIS)).reject(initError);
+        verify(silent, timeout(TIMEOUT_MILLIS)).reject(initError);
+        verify(accounts, timeout(TIMEOUT_MILLIS)).reject(initError);
+        verify(silent, never()).reject(eq(PendingCalls.ERROR_CODE_TIMEOUT), anyString());
+        assertEquals(0, fake.getSilentRequestCount());
+    }
+
+    @Test
+    public void heldCall_timesOutWhileClientIsBeingCreated() throws Exception {
+        Promise init = createPublicClientApplication();
+        Promise silent = mock(Promise.class);
+        JavaOnlyMap silentParams = makeSilentParams(fake.getAccounts().get(0).getId());
+        silentParams.putDouble("timeoutMs", 50);
+        onModulesThread(() -> module.acquireTokenSilent(HANDLE, silentParams, silent));
+
+        verify(silent, timeout(TIMEOUT_MILLIS)).reject(eq(PendingCalls.ERROR_CODE_TIMEOUT), anyString());
+        initCanFinish.countDown();
+        verify(init, timeout(TIMEOUT_MILLIS)).resolve(HANDLE);
+        // The release of the held calls is queued on the modules thread by then
+        onModulesThread(() -> {});
+
+        // A call that already timed out isn't started anymore
+        assertEquals(0, fake.getSilentRequestCount());
+        verify(silent, never()).resolve(any());
+    }
+
+    @Test
+    public void heldCall_canBeCancelledWhileClientIsBeingCreated() throws Exception {
+        createPublicClientApplication();
+        Promise silent = mock(Promise.class);
+        JavaOnlyMap silentParams = makeSilentParams(fake.getAccounts().get(0).getId());
+        silentParams.putString("requestId", "silent");
+        onModulesThread(() -> module.acquireTokenSilent(HANDLE, silentParams, silent));
+        Promise cancel = mock(Promise.class);
+
+        onModulesThread(() -> module.cancel("silent", cancel));
+
+        verify(cancel).resolve(true);
+        verify(silent).reject(eq(PendingCalls.ERROR_CODE_CANCELLED), anyString());
+    }
+
+    private Promise createPublicClientApplication() throws Exception {
+        Promise init = mock(Promise.class);
+        onModulesThread(() -> module.createPublicClientApplication(
+                JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "init-test")), HANDLE, init));
+        return init;
+    }
+
+    private void onModulesThread(Runnable runnable) throws Exception {
+        fixture.onModulesThread(runnable);
+    }
+
+    private static JavaOnlyMap makeSilentParams(String accountIdentifier) {
+        return JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "account", JavaOnlyMap.of("identifier", accountIdentifier));
+    }
+}
@@ -0,0 +1,120 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.microsoft.identity.client.AcquireTokenParameters;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * After an interactive sign in, tokens for the declared scope sets are acquired silently in the
+ * background, without holding up the sign in.
+ */
+public class RNMSALModulePrefetchTest {
+    private static final String HANDLE = "prefetch";
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT);
+        fixture = new ModuleFixture(1, (context, config) -> pca.get());
+        module = fixture.getModule();
+        fixture.createPublicClientApplication(HANDLE, JavaOnlyMap.of(
+                "auth", JavaOnlyMap.of("clientId", "prefetch-test"),
+                "prefetchScopes", JavaOnlyArray.of(
+                        JavaOnlyArray.of("User.Read"),
+                        JavaOnlyArray.of("Mail.Read"),
+                        JavaOnlyArray.of("Calendars.Read", "Files.Read"))));
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void signIn_prefetchesOtherScopeSets() throws Exception {
+        Promise signIn = acquireToken(JavaOnlyMap.of("scopes", JavaOnlyArray.of("User.Read")));
+
+        // The sign in resolves without waiting for the prefetches
+        verify(signIn, timeout(TIMEOUT_MILLIS)).resolve(any());
+        Set<Set<String>> prefetchedScopes = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            AcquireTokenSilentParameters request = pca.nextSilentRequest();
+            prefetchedScopes.add(new HashSet<>(request.getScopes()));
+            request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList(
+                Collections.singleton("Mail.Read"),
+                new HashSet<>(Arrays.asList("Calendars.Read", "Files.Read")))), prefetchedScopes);
+        // The scopes of the sign in itself aren't acquired again
+        Thread.sleep(50);
+        assertEquals(0, pca.getPendingSilentRequestCount());
+        assertNotNull(getCachedAccessToken("Mail.Read"));
+        assertNotNull(getCachedAccessToken("Calendars.Read", "Files.Read"));
+    }
+
+    @Test
+    public void scopeSetsOfCall_replaceConfiguredOnes() throws Exception {
+        Promise signIn = acquireToken(JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "prefetchScopes", JavaOnlyArray.of(JavaOnlyArray.of("Files.Read"))));
+
+        verify(signIn, timeout(TIMEOUT_MILLIS)).resolve(any());
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+
+        assertEquals(Collections.singletonList("Files.Read"), request.getScopes());
+        Thread.sleep(50);
+        assertEquals(0, pca.getPendingSilentRequestCount());
+    }
+
+    @Test
+    public void failedPrefetch_doesNotAffectSignIn() throws Exception {
+        Promise signIn = acquireToken(JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "prefetchScopes", JavaOnlyArray.of(JavaOnlyArray.of("Files.Read"))));
+
+        pca.nextSilentRequest().getCallback().onError(mock(MsalServiceException.class));
+
+        verify(signIn, timeout(TIMEOUT_MILLIS)).resolve(any());
+        verify(signIn, never()).reject(any(Throwable.class));
+    }
+
+    // Signs in with the account, once the PCA is asked to
+    private Promise acquireToken(JavaOnlyMap params) throws Exception {
+        Promise promise = mock(Promise.class);
+        fixture.onModulesThread(() -> module.acquireToken(HANDLE, params, promise));
+        AcquireTokenParameters request = pca.nextInteractiveRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(
+                pca.getAccount(ACCOUNT), RNMSALModule.readableArrayToStringList(params.getArray("scopes"))));
+        return promise;
+    }
+
+    private String getCachedAccessToken(String... scopes) {
+        return module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of((Object[]) scopes), null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.reactnativemsal;
+
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.Signature;
+import android.content.pm.SigningInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The redirect uri derived from the signing certificate is cached per app version, and derived
+ * from the same certificate on every API level.
+ */
+public class RNMSALModuleRedirectUriTest {
+    private static final String PACKAGE_NAME = "com.example.app";
+    private static final String REDIRECT_URI = "msauth://com.example.app/aGFzaA%3D%3D";
+    private static final int SDK_PIE = 28;
+    private static final int SDK_OREO = 26;
+
+    private SharedPreferences preferences;
+
+    @Before
+    public void setUp() {
+        Map<String, String> values = new HashMap<>();
+        preferences = mock(SharedPreferences.class);
+        when(preferences.getString(anyString(), any())).thenAnswer(
+                invocation -> values.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+        SharedPreferences.Editor editor = mock(SharedPreferences.Editor.class, RETURNS_SELF);
+        doAnswer(invocation -> {
+            values.put(invocation.getArgument(0), invocation.getArgument(1));
+            return invocation.getMock();
+        }).when(editor).putString(anyString(), anyString());
+        when(preferences.edit()).thenReturn(editor);
+    }
+
+    @Test
+    public void cachedRedirectUri_isReturnedForSameVersion() {
+        String cacheKey = RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(1000, 3), SDK_OREO);
+        assertNull(RNMSALModule.getCachedRedirectUri(preferences, cacheKey));
+
+        RNMSALModule.putCachedRedirectUri(preferences, cacheKey, REDIRECT_URI);
+
+        assertEquals(REDIRECT_URI, RNMSALModule.getCachedRedirectUri(preferences, cacheKey));
+    }
+
+    @Test
+    public void cachedRedirectUri_isIgnoredAfterUpdate() {
+        String cacheKey = RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(1000, 3), SDK_OREO);
+        RNMSALModule.putCachedRedirectUri(preferences, cacheKey, REDIRECT_URI);
+
+        String updatedKey = RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(2000, 4), SDK_OREO);
+
+        assertNotEquals(cacheKey, updatedKey);
+        assertNull(RNMSALModule.getCachedRedirectUri(preferences, updatedKey));
+    }
+
+    @Test
+    public void cacheKey_changesWithEitherUpdateTimeOrVersion() {
+        String cacheKey = RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(1000, 3), SDK_OREO);
+
+        // Reinstalling the same version
+        assertNotEquals(cacheKey, RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(2000, 3), SDK_OREO));
+        assertNotEquals(cacheKey, RNMSALModule.makeRedirectUriCacheKey(PACKAGE_NAME, makePackageInfo(1000, 4), SDK_OREO));
+    }
+
+    @Test
+    public void signingCertificate_isOldestOfLineage() throws Exception {
+        Signature original = mock(Signature.class);
+        Signature rotated = mock(Signature.class);
+        SigningInfo signingInfo = mock(SigningInfo.class);
+        when(signingInfo.hasMultipleSigners()).thenReturn(false);
+        when(signingInfo.getSigningCertificateHistory()).thenReturn(new Signature[]{original, rotated});
+
+        Signature signature = RNMSALModule.getSigningCertificate(
+                mockPackageManager(PackageManager.GET_SIGNING_CERTIFICATES, signingInfo, null), PACKAGE_NAME, SDK_PIE);
+
+        assertSame(original, signature);
+    }
+
+    @Test
+    public void signingCertificate_isReadFromSignaturesBeforePie() throws Exception {
+        Signature original = mock(Signature.class);
+
+        Signature signature = RNMSALModule.getSigningCertificate(
+                mockPackageManager(PackageManager.GET_SIGNATURES, null, new Signature[]{original}), PACKAGE_NAME, SDK_OREO);
+
+        assertSame(original, signature);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void signingCertificate_failsWithMultipleSigners() throws Exception {
+        SigningInfo signingInfo = mock(SigningInfo.class);
+        when(signingInfo.hasMultipleSigners()).thenReturn(true);
+        when(signingInfo.getApkContentsSigners()).thenReturn(
+                new Signature[]{mock(Signature.class), mock(Signature.class)});
+
+        RNMSALModule.getSigningCertificate(
+                mockPackageManager(PackageManager.GET_SIGNING_CERTIFICATES, signingInfo, null), PACKAGE_NAME, SDK_PIE);
+    }
+
+    private static PackageManager mockPackageManager(int flags, SigningInfo signingInfo, Signature[] signatures)
+            throws PackageManager.NameNotFoundException {
+        PackageInfo packageInfo = new PackageInfo();
+        packageInfo.signingInfo = signingInfo;
+        packageInfo.signatures = signatures;
+        PackageManager packageManager = mock(PackageManager.class);
+        when(packageManager.getPackageInfo(PACKAGE_NAME, flags)).thenReturn(packageInfo);
+        return packageManager;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static PackageInfo makePackageInfo(long lastUpdateTime, int versionCode) {
+        PackageInfo packageInfo = new PackageInfo();
+        packageInfo.lastUpdateTime = lastUpdateTime;
+        packageInfo.versionCode = versionCode;
+        return packageInfo;
+    }
+}
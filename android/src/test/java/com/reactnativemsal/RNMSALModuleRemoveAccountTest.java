@@ -0,0 +1,97 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.IMultipleAccountPublicClientApplication;
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Silent calls that are still in flight when their account is removed: their tokens must not be
+ * cached, or kept for background renewal, after the account is gone.
+ */
+public class RNMSALModuleRemoveAccountTest {
+    private static final String HANDLE = "remove";
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT);
+        fixture = new ModuleFixture(1, (context, config) -> pca.get());
+        module = fixture.getModule();
+        Promise init = mock(Promise.class);
+        fixture.onModulesThread(() -> module.createPublicClientApplication(
+                JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "remove-test")), HANDLE, init));
+        verify(init, timeout(TIMEOUT_MILLIS)).resolve(HANDLE);
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void silentCallFinishingAfterRemoveAccount_isNotCached() throws Exception {
+        Promise silent = mock(Promise.class);
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, makeSilentParams(), silent));
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        Promise removed = mock(Promise.class);
+        fixture.onModulesThread(() -> module.removeAccount(HANDLE, JavaOnlyMap.of("identifier", ACCOUNT), removed));
+        IMultipleAccountPublicClientApplication.RemoveAccountCallback removal = pca.nextRemoval();
+
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+
+        // The call itself still gets its token
+        verify(silent, timeout(TIMEOUT_MILLIS)).resolve(any());
+        assertNull(getCachedAccessToken());
+
+        removal.onRemoved();
+
+        verify(removed, timeout(TIMEOUT_MILLIS)).resolve(true);
+        assertNull(getCachedAccessToken());
+    }
+
+    @Test
+    public void silentCallAfterFailedRemoveAccount_isCached() throws Exception {
+        Promise removed = mock(Promise.class);
+        fixture.onModulesThread(() -> module.removeAccount(HANDLE, JavaOnlyMap.of("identifier", ACCOUNT), removed));
+        MsalClientException error = mock(MsalClientException.class);
+        pca.nextRemoval().onError(error);
+        verify(removed, timeout(TIMEOUT_MILLIS)).reject(error);
+
+        Promise silent = mock(Promise.class);
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, makeSilentParams(), silent));
+        AcquireTokenSilentParameters request = pca.nextSilentRequest();
+        request.getCallback().onSuccess(ManualPublicClientApplication.makeResult(request));
+
+        verify(silent, timeout(TIMEOUT_MILLIS)).resolve(any());
+        assertNotNull(getCachedAccessToken());
+    }
+
+    private String getCachedAccessToken() {
+        return module.getCachedAccessTokenSync(HANDLE, ACCOUNT, JavaOnlyArray.of("User.Read"), null);
+    }
+
+    private static JavaOnlyMap makeSilentParams() {
+        return JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "account", JavaOnlyMap.of("identifier", ACCOUNT));
+    }
+}
@@ -0,0 +1,119 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.microsoft.identity.client.AcquireTokenSilentParameters;
+import com.microsoft.identity.client.exception.MsalServiceException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retries and fail fast of silent calls made through the module, as configured with `retry` and
+ * `circuitBreaker`. The decisions themselves are tested in {@link SilentRetryTest}.
+ */
+public class RNMSALModuleRetryTest {
+    private static final String HANDLE = "retry";
+    private static final String ACCOUNT = "account-00000";
+    private static final long TIMEOUT_MILLIS = ModuleFixture.TIMEOUT_MILLIS;
+
+    private ManualPublicClientApplication pca;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        pca = new ManualPublicClientApplication(ACCOUNT);
+        fixture = new ModuleFixture(1, (context, config) -> pca.get());
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void transientError_isRetried() throws Exception {
+        createPublicClientApplication(
+                JavaOnlyMap.of("maxAttempts", 3, "baseDelayMs", 1, "maxDelayMs", 1),
+                JavaOnlyMap.of("enabled", false));
+        Promise silent = acquireTokenSilent();
+
+        pca.nextSilentRequest().getCallback().onError(serviceException("service_not_available", 503));
+        AcquireTokenSilentParameters retry = pca.nextSilentRequest();
+        retry.getCallback().onSuccess(ManualPublicClientApplication.makeResult(retry));
+
+        verify(silent, timeout(TIMEOUT_MILLIS)).resolve(any());
+        verify(silent, never()).reject(any(Throwable.class));
+    }
+
+    @Test
+    public void otherError_isNotRetried() throws Exception {
+        createPublicClientApplication(
+                JavaOnlyMap.of("maxAttempts", 3, "baseDelayMs", 1, "maxDelayMs", 1),
+                JavaOnlyMap.of("enabled", false));
+        Promise silent = acquireTokenSilent();
+        MsalServiceException invalidGrant = serviceException("invalid_grant", 400);
+
+        pca.nextSilentRequest().getCallback().onError(invalidGrant);
+
+        verify(silent, timeout(TIMEOUT_MILLIS)).reject(invalidGrant);
+        Thread.sleep(50);
+        assertEquals(0, pca.getPendingSilentRequestCount());
+    }
+
+    @Test
+    public void openCircuit_failsFastWithoutReachingPca() throws Exception {
+        createPublicClientApplication(
+                JavaOnlyMap.of("enabled", false),
+                JavaOnlyMap.of("failureThreshold", 2, "openDurationSeconds", 60));
+        for (int i = 0; i < 2; i++) {
+            Promise silent = acquireTokenSilent();
+            MsalServiceException error = serviceException("service_not_available", 503);
+            pca.nextSilentRequest().getCallback().onError(error);
+            verify(silent, timeout(TIMEOUT_MILLIS)).reject(error);
+        }
+
+        Promise silent = acquireTokenSilent();
+
+        verify(silent, timeout(TIMEOUT_MILLIS)).reject(eq(CircuitBreaker.ERROR_CODE_CIRCUIT_OPEN), anyString());
+        verify(pca.get(), times(2)).acquireTokenSilentAsync(any());
+    }
+
+    private void createPublicClientApplication(JavaOnlyMap retry, JavaOnlyMap circuitBreaker) throws Exception {
+        fixture.createPublicClientApplication(HANDLE, JavaOnlyMap.of(
+                "auth", JavaOnlyMap.of("clientId", "retry-test"),
+                "retry", retry,
+                "circuitBreaker", circuitBreaker));
+    }
+
+    private Promise acquireTokenSilent() throws Exception {
+        Promise promise = mock(Promise.class);
+        JavaOnlyMap params = JavaOnlyMap.of(
+                "scopes", JavaOnlyArray.of("User.Read"),
+                "account", JavaOnlyMap.of("identifier", ACCOUNT));
+        fixture.onModulesThread(() -> module.acquireTokenSilent(HANDLE, params, promise));
+        return promise;
+    }
+
+    private static MsalServiceException serviceException(String errorCode, int httpStatusCode) {
+        MsalServiceException exception = mock(MsalServiceException.class);
+        when(exception.getErrorCode()).thenReturn(errorCode);
+        when(exception.getHttpStatusCode()).thenReturn(httpStatusCode);
+        return exception;
+    }
+}
@@ -0,0 +1,282 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.microsoft.identity.client.IAccount;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives thousands of concurrent acquireTokenSilent, getAccounts and removeAccount calls through
+ * RNMSALModule, with a FakePublicClientApplication standing in for MSAL, and checks that every
+ * promise settles exactly once, with a result or an expected error. The calls start while the
+ * client is still being created, so they also go through the readiness gate.
+ *
+ * Throughput and latency percentiles are printed, which Gradle shows when run with the
+ * `rnmsal.benchmark` property (see android/build.gradle). That also raises the number of calls.
+ */
+public class RNMSALModuleStressTest {
+    private static final String HANDLE = "stress";
+    private static final int ACCOUNT_COUNT = 200;
+    private static final int CALLER_THREAD_COUNT = 8;
+    private static final List<List<String>> SCOPE_SETS = Arrays.asList(
+            Collections.singletonList("User.Read"),
+            Arrays.asList("Mail.Read", "Mail.Send"),
+            Collections.singletonList("api://contoso/.default"));
+    // Errors the fake produces, and deadlines of the calls made with a timeout
+    private static final Set<String> EXPECTED_ERROR_CODES = new HashSet<>(Arrays.asList(
+            FakePublicClientApplication.ERROR_CODE_INVALID_GRANT,
+            FakePublicClientApplication.ERROR_CODE_NO_ACCOUNT,
+            PendingCalls.ERROR_CODE_TIMEOUT));
+
+    private FakePublicClientApplication fake;
+    private ModuleFixture fixture;
+    private RNMSALModule module;
+
+    @Before
+    public void setUp() throws Exception {
+        fake = new FakePublicClientApplication(ACCOUNT_COUNT, JavaOnlyArguments.threadFactory("FakeMSAL"))
+                .withLatency(0, 3)
+                .withErrorRate(0.05);
+        fixture = new ModuleFixture(4, (context, config) -> {
+            // Slow enough that the first calls are made before the client exists
+            Thread.sleep(50);
+            return fake.get();
+        });
+        module = fixture.getModule();
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+        fake.shutdown();
+    }
+
+    @Test
+    public void concurrentCalls_settleEachPromiseExactlyOnce() throws Exception {
+        int callCount = Boolean.getBoolean("rnmsal.benchmark") ? 50000 : 3000;
+        List<IAccount> accounts = fake.getAccounts();
+        List<RecordingPromise> calls = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch settled = new CountDownLatch(callCount);
+
+        RecordingPromise init = new RecordingPromise("createPublicClientApplication", null, null);
+        // Like the bridge, create the client on the modules thread before any call for it
+        fixture.onModulesThread(() -> module.createPublicClientApplication(
+                JavaOnlyMap.of("auth", JavaOnlyMap.of("clientId", "stress-test")), HANDLE, init));
+
+        ExecutorService callers =
+                Executors.newFixedThreadPool(CALLER_THREAD_COUNT, JavaOnlyArguments.threadFactory("caller"));
+        AtomicInteger remaining = new AtomicInteger(callCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLER_THREAD_COUNT; i++) {
+            callers.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    calls.add(makeRandomCall(accounts, settled));
+                }
+            });
+        }
+        callers.shutdown();
+
+        assertTrue("Not all calls settled within a minute", settled.await(60, TimeUnit.SECONDS));
+        long elapsedNanos = System.nanoTime() - start;
+        // Late callbacks of calls that already timed out must be dropped, give them time to arrive
+        Thread.sleep(200);
+
+        assertEquals(1, init.settleCount.get());
+        assertTrue("createPublicClientApplication failed: " + init.errorCode, init.errorCode == null);
+        assertEquals(callCount, calls.size());
+        for (RecordingPromise call : calls) {
+            assertEquals(call.method + " settled more than once", 1, call.settleCount.get());
+            if (call.errorCode != null) {
+                assertTrue(call.method + " rejected with " + call.errorCode, EXPECTED_ERROR_CODES.contains(call.errorCode));
+            } else if (call.accountIdentifier != null && "acquireTokenSilent".equals(call.method)) {
+                ReadableMap account = ((ReadableMap) call.value).getMap("account");
+                assertEquals(call.accountIdentifier, account.getString("identifier"));
+            }
+        }
+
+        report(calls, elapsedNanos);
+    }
+
+    private RecordingPromise makeRandomCall(List<IAccount> accounts, CountDownLatch settled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String accountIdentifier = accounts.get(random.nextInt(accounts.size())).getId();
+        int operation = random.nextInt(100);
+        if (operation < 80) {
+            List<String> scopes = SCOPE_SETS.get(random.nextInt(SCOPE_SETS.size()));
+            JavaOnlyMap params = JavaOnlyMap.of(
+                    "scopes", JavaOnlyArray.from(new ArrayList<Object>(scopes)),
+                    "account", JavaOnlyMap.of("identifier", accountIdentifier));
+            // Deadlines that race the fake's callbacks
+            if (operation < 8) {
+                params.putDouble("timeoutMs", 2);
+            }
+            RecordingPromise promise = new RecordingPromise("acquireTokenSilent", accountIdentifier, settled);
+            module.acquireTokenSilent(HANDLE, params, promise);
+            return promise;
+        } else if (operation < 97) {
+            RecordingPromise promise = new RecordingPromise("getAccounts", null, settled);
+            module.getAccounts(HANDLE, null, promise);
+            return promise;
+        } else {
+            RecordingPromise promise = new RecordingPromise("removeAccount", accountIdentifier, settled);
+            module.removeAccount(HANDLE, JavaOnlyMap.of("identifier", accountIdentifier), promise);
+            return promise;
+        }
+    }
+
+    private void report(List<RecordingPromise> calls, long elapsedNanos) throws Exception {
+        System.out.printf(Locale.ROOT, "%d calls in %.0f ms, %.0f calls/s, %d silent requests reached MSAL%n",
+                calls.size(),
+                elapsedNanos / 1e6,
+                calls.size() / (elapsedNanos / 1e9),
+                fake.getSilentRequestCount());
+        for (String method : Arrays.asList("acquireTokenSilent", "getAccounts", "removeAccount")) {
+            List<Long> latencies = new ArrayList<>();
+            int errors = 0;
+            for (RecordingPromise call : calls) {
+                if (call.method.equals(method)) {
+                    latencies.add(call.latencyNanos);
+                    errors += call.errorCode != null ? 1 : 0;
+                }
+            }
+            if (latencies.isEmpty()) {
+                continue;
+            }
+            Collections.sort(latencies);
+            System.out.printf(Locale.ROOT, "%-18s n=%-6d errors=%-5d p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    method,
+                    latencies.size(),
+                    errors,
+                    percentile(latencies, 0.5) / 1e6,
+                    percentile(latencies, 0.99) / 1e6,
+                    latencies.get(latencies.size() - 1) / 1e6);
+        }
+
+        RecordingPromise metrics = new RecordingPromise("getMetrics", null, null);
+        module.getMetrics(metrics);
+        System.out.println(((ReadableMap) metrics.value).getMap("counters"));
+    }
+
+    private static long percentile(List<Long> sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, Math.min(index, sortedValues.size() - 1)));
+    }
+
+    /**
+     * Counts how often it is settled, and keeps the outcome and latency of the first time
+     */
+    private static class RecordingPromise implements Promise {
+        final String method;
+        final String accountIdentifier;
+        final AtomicInteger settleCount = new AtomicInteger();
+        private final CountDownLatch settled;
+        private final long startNanos = System.nanoTime();
+        volatile long latencyNanos;
+        volatile Object value;
+        volatile String errorCode;
+
+        RecordingPromise(String method, String accountIdentifier, CountDownLatch settled) {
+            this.method = method;
+            this.accountIdentifier = accountIdentifier;
+            this.settled = settled;
+        }
+
+        private void settle(Object value, String errorCode) {
+            if (settleCount.incrementAndGet() != 1) {
+                return;
+            }
+            this.latencyNanos = System.nanoTime() - startNanos;
+            this.value = value;
+            this.errorCode = errorCode;
+            if (settled != null) {
+                settled.countDown();
+            }
+        }
+
+        private static String codeOf(Throwable throwable) {
+            return throwable instanceof MsalException
+                    ? ((MsalException) throwable).getErrorCode()
+                    : String.valueOf(throwable);
+        }
+
+        @Override
+        public void resolve(Object value) {
+            settle(value, null);
+        }
+
+        @Override
+        public void reject(String code, String message) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(Throwable throwable) {
+            settle(null, codeOf(throwable));
+        }
+
+        @Override
+        public void reject(Throwable throwable, WritableMap userInfo) {
+            settle(null, codeOf(throwable));
+        }
+
+        @Override
+        public void reject(String code, WritableMap userInfo) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(String code, Throwable throwable, WritableMap userInfo) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(String code, String message, WritableMap userInfo) {
+            settle(null, code);
+        }
+
+        @Override
+        public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+            settle(null, code);
+        }
+
+        @Override
+        @Deprecated
+        public void reject(String message) {
+            settle(null, message);
+        }
+    }
+}
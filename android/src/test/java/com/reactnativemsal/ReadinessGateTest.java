@@ -0,0 +1,112 @@
+package com.reactnativemsal;
+
+import com.facebook.react.bridge.Promise;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ReadinessGateTest {
+    private List<Runnable> dispatched;
+    private ReadinessGate readinessGate;
+    private List<String> ran;
+
+    @Before
+    public void setUp() {
+        dispatched = new ArrayList<>();
+        readinessGate = new ReadinessGate(dispatched::add);
+        ran = new ArrayList<>();
+    }
+
+    @Test
+    public void defer_passesCallsForClientsNotBeingCreated() {
+        assertFalse(readinessGate.defer("1", mock(Promise.class), () -> ran.add("call")));
+        assertFalse(readinessGate.defer(null, mock(Promise.class), () -> ran.add("call")));
+    }
+
+    @Test
+    public void release_runsHeldCallsInOrderOnDispatcher() {
+        readinessGate.begin("1");
+        assertTrue(readinessGate.defer("1", mock(Promise.class), () -> ran.add("first")));
+        assertTrue(readinessGate.defer(null, mock(Promise.class), () -> ran.add("second")));
+
+        readinessGate.release("1");
+        // Calls made before the dispatcher gets to the release are still held behind the others
+        assertTrue(readinessGate.defer("1", mock(Promise.class), () -> ran.add("third")));
+        assertTrue(ran.isEmpty());
+
+        runDispatched();
+        assertEquals(Arrays.asList("first", "second", "third"), ran);
+        assertFalse(readinessGate.defer("1", mock(Promise.class), () -> ran.add("fourth")));
+    }
+
+    @Test
+    public void fail_rejectsHeldCalls() {
+        readinessGate.begin("1");
+        Promise first = mock(Promise.class);
+        Promise second = mock(Promise.class);
+        readinessGate.defer("1", first, () -> ran.add("first"));
+        readinessGate.defer("1", second, () -> ran.add("second"));
+        Exception error = new IllegalArgumentException("clientId is required");
+
+        readinessGate.fail("1", error);
+
+        verify(first).reject(error);
+        verify(second).reject(error);
+        runDispatched();
+        assertTrue(ran.isEmpty());
+    }
+
+    @Test
+    public void begin_refusesHandleBeingCreated() {
+        assertTrue(readinessGate.begin("1"));
+        assertFalse(readinessGate.begin("1"));
+        assertTrue(readinessGate.begin("2"));
+    }
+
+    @Test
+    public void defer_holdsCallsOfOneClientOnly() {
+        readinessGate.begin("1");
+        readinessGate.begin("2");
+        Promise promise = mock(Promise.class);
+        readinessGate.defer("1", promise, () -> ran.add("first"));
+        readinessGate.defer("2", mock(Promise.class), () -> ran.add("second"));
+
+        readinessGate.release("2");
+        runDispatched();
+
+        assertEquals(Arrays.asList("second"), ran);
+        verify(promise, never()).reject(anyString(), anyString());
+    }
+
+    @Test
+    public void shutdown_rejectsAllHeldCalls() {
+        readinessGate.begin("1");
+        Promise promise = mock(Promise.class);
+        readinessGate.defer("1", promise, () -> ran.add("call"));
+
+        readinessGate.shutdown();
+
+        verify(promise).reject(eq(ReadinessGate.ERROR_CODE_DESTROYED), anyString());
+        assertFalse(readinessGate.defer("1", mock(Promise.class), () -> ran.add("call")));
+    }
+
+    private void runDispatched() {
+        for (Runnable runnable : new ArrayList<>(dispatched)) {
+            runnable.run();
+        }
+        dispatched.clear();
+    }
+}
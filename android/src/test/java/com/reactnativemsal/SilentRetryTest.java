@@ -0,0 +1,166 @@
+package com.reactnativemsal;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalServiceException;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the retry and circuit breaker decisions made for failed silent requests. The time
+ * source of the circuit breaker is faked, so no test has to wait for real delays.
+ */
+public class SilentRetryTest {
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+    private static final String OTHER_AUTHORITY = "https://login.microsoftonline.com/organizations";
+    private static final long OPEN_DURATION_MILLIS = 30000;
+
+    private long now;
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        circuitBreaker = new CircuitBreaker(3, OPEN_DURATION_MILLIS, () -> now);
+    }
+
+    @Test
+    public void isTransient_throttlingAndServerErrors() {
+        assertTrue(RetryPolicy.isTransient(serviceException("invalid_request", 429)));
+        assertTrue(RetryPolicy.isTransient(serviceException("invalid_request", 503)));
+        assertTrue(RetryPolicy.isTransient(serviceException("service_not_available", 0)));
+        assertTrue(RetryPolicy.isTransient(serviceException("request_timeout", 0)));
+        assertFalse(RetryPolicy.isTransient(serviceException("invalid_grant", 400)));
+    }
+
+    @Test
+    public void isTransient_networkErrors() {
+        assertTrue(RetryPolicy.isTransient(clientException("io_error")));
+        assertTrue(RetryPolicy.isTransient(clientException("device_network_not_available")));
+        assertFalse(RetryPolicy.isTransient(clientException("no_current_account")));
+        assertFalse(RetryPolicy.isTransient(mock(MsalUiRequiredException.class)));
+        assertFalse(RetryPolicy.isTransient(new IllegalStateException()));
+    }
+
+    @Test
+    public void shouldRetry_untilMaxAttempts() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 100, 1000);
+        Exception error = serviceException("invalid_request", 500);
+
+        assertTrue(retryPolicy.shouldRetry(1, error));
+        assertTrue(retryPolicy.shouldRetry(2, error));
+        assertFalse(retryPolicy.shouldRetry(3, error));
+        assertFalse(RetryPolicy.NONE.shouldRetry(1, error));
+    }
+
+    @Test
+    public void getDelayMillis_growsExponentiallyWithinJitterAndCap() {
+        RetryPolicy retryPolicy = new RetryPolicy(10, 100, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            assertInRange(retryPolicy.getDelayMillis(1), 50, 100);
+            assertInRange(retryPolicy.getDelayMillis(2), 100, 200);
+            assertInRange(retryPolicy.getDelayMillis(3), 200, 400);
+            assertInRange(retryPolicy.getDelayMillis(8), 500, 1000);
+        }
+    }
+
+    @Test
+    public void circuitBreaker_opensAfterConsecutiveFailures() {
+        circuitBreaker.recordFailure(AUTHORITY);
+        circuitBreaker.recordFailure(AUTHORITY);
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+
+        circuitBreaker.recordFailure(AUTHORITY);
+        assertFalse(circuitBreaker.allowRequest(AUTHORITY));
+        assertTrue(circuitBreaker.allowRequest(OTHER_AUTHORITY));
+    }
+
+    @Test
+    public void circuitBreaker_successResetsFailureCount() {
+        circuitBreaker.recordFailure(AUTHORITY);
+        circuitBreaker.recordFailure(AUTHORITY);
+        circuitBreaker.recordSuccess(AUTHORITY);
+        circuitBreaker.recordFailure(AUTHORITY);
+        circuitBreaker.recordFailure(AUTHORITY);
+
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+    }
+
+    @Test
+    public void circuitBreaker_letsSingleProbeThroughAfterOpenDuration() {
+        openCircuit();
+        now += OPEN_DURATION_MILLIS;
+
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+        assertFalse(circuitBreaker.allowRequest(AUTHORITY));
+
+        circuitBreaker.recordSuccess(AUTHORITY);
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+    }
+
+    @Test
+    public void circuitBreaker_failedProbeOpensAgain() {
+        openCircuit();
+        now += OPEN_DURATION_MILLIS;
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+
+        circuitBreaker.recordFailure(AUTHORITY);
+        assertFalse(circuitBreaker.allowRequest(AUTHORITY));
+
+        now += OPEN_DURATION_MILLIS;
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+    }
+
+    @Test
+    public void circuitBreaker_releasedProbeCanBeRetaken() {
+        openCircuit();
+        now += OPEN_DURATION_MILLIS;
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+
+        circuitBreaker.releaseProbe(AUTHORITY);
+        assertTrue(circuitBreaker.allowRequest(AUTHORITY));
+    }
+
+    @Test
+    public void circuitBreaker_disabledNeverOpens() {
+        CircuitBreaker disabled = new CircuitBreaker(0, OPEN_DURATION_MILLIS, () -> now);
+        for (int i = 0; i < 10; i++) {
+            disabled.recordFailure(AUTHORITY);
+        }
+
+        assertTrue(disabled.allowRequest(AUTHORITY));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(AUTHORITY);
+        }
+        assertFalse(circuitBreaker.allowRequest(AUTHORITY));
+    }
+
+    private static void assertInRange(long value, long min, long max) {
+        assertTrue(value + " is not in [" + min + ", " + max + "]", value >= min && value <= max);
+    }
+
+    private static MsalServiceException serviceException(String errorCode, int httpStatusCode) {
+        MsalServiceException exception = mock(MsalServiceException.class);
+        when(exception.getErrorCode()).thenReturn(errorCode);
+        when(exception.getHttpStatusCode()).thenReturn(httpStatusCode);
+        return exception;
+    }
+
+    private static MsalClientException clientException(String errorCode) {
+        MsalClientException exception = mock(MsalClientException.class);
+        when(exception.getErrorCode()).thenReturn(errorCode);
+        return exception;
+    }
+}
@@ -0,0 +1,130 @@
+package com.reactnativemsal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TokenRefreshSchedulerTest {
+    private static final long LEAD_TIME_MILLIS = TokenRefreshScheduler.DEFAULT_LEAD_TIME_MILLIS;
+    // Leeway for the time that passes between tracking a token and checking its delay
+    private static final long TOLERANCE_MILLIS = 5000;
+
+    private RecordingExecutor executor;
+    private List<String> renewed;
+    private TokenRefreshScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        executor = new RecordingExecutor();
+        renewed = new ArrayList<>();
+        scheduler = new TokenRefreshScheduler(
+                (accountIdentifier, authority, scopes) -> renewed.add(accountIdentifier), LEAD_TIME_MILLIS, 0, executor);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void track_schedulesRenewalLeadTimeBeforeExpiry() {
+        track(TimeUnit.HOURS.toMillis(1));
+
+        assertDelay(TimeUnit.HOURS.toMillis(1) - LEAD_TIME_MILLIS, executor.lastDelayMillis());
+    }
+
+    @Test
+    public void track_renewsShortLivedTokensHalfwayThroughTheirLifetime() {
+        long lifetimeMillis = TimeUnit.MINUTES.toMillis(8);
+
+        track(lifetimeMillis);
+
+        assertDelay(lifetimeMillis / 2, executor.lastDelayMillis());
+    }
+
+    @Test
+    public void track_waitsAtLeastTheMinimumDelayForExpiredTokens() {
+        // E.g. a device clock that runs ahead of the identity provider's
+        track(-TimeUnit.MINUTES.toMillis(5));
+
+        assertDelay(TokenRefreshScheduler.MIN_REFRESH_DELAY_MILLIS, executor.lastDelayMillis());
+    }
+
+    @Test
+    public void renewal_ofShortLivedTokenIsNotRescheduledRightAway() {
+        long lifetimeMillis = TimeUnit.SECONDS.toMillis(30);
+        scheduler = new TokenRefreshScheduler(
+                (accountIdentifier, authority, scopes) -> {
+                    renewed.add(accountIdentifier);
+                    // Like a successful renewal, which tracks the new token with the same lifetime
+                    track(lifetimeMillis);
+                },
+                LEAD_TIME_MILLIS,
+                0,
+                executor);
+        track(lifetimeMillis);
+
+        for (int i = 0; i < 3; i++) {
+            executor.runLast();
+        }
+
+        assertEquals(3, renewed.size());
+        assertEquals(4, executor.delaysMillis.size());
+        for (long delayMillis : executor.delaysMillis) {
+            assertDelay(TokenRefreshScheduler.MIN_REFRESH_DELAY_MILLIS, delayMillis);
+        }
+    }
+
+    private void track(long lifetimeMillis) {
+        scheduler.track(
+                "key",
+                "account",
+                ConversionFixtures.DEFAULT_AUTHORITY,
+                Collections.singletonList("User.Read"),
+                System.currentTimeMillis() + lifetimeMillis);
+    }
+
+    private static void assertDelay(long expectedMillis, long actualMillis) {
+        assertTrue(
+                "Expected a delay of about " + expectedMillis + " ms, was " + actualMillis + " ms",
+                actualMillis <= expectedMillis && actualMillis > expectedMillis - TOLERANCE_MILLIS);
+    }
+
+    /**
+     * Records the renewals the scheduler asks for instead of running them, so tests can run them
+     * without waiting for their delay
+     */
+    private static class RecordingExecutor extends ScheduledThreadPoolExecutor {
+        final List<Long> delaysMillis = new ArrayList<>();
+        final List<Runnable> commands = new ArrayList<>();
+
+        RecordingExecutor() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delaysMillis.add(unit.toMillis(delay));
+            commands.add(command);
+            return super.schedule(() -> {}, 1, TimeUnit.DAYS);
+        }
+
+        long lastDelayMillis() {
+            return delaysMillis.get(delaysMillis.size() - 1);
+        }
+
+        void runLast() {
+            commands.get(commands.size() - 1).run();
+        }
+    }
+}
@@ -18,6 +18,7 @@ MSALPublicClientApplication *application;
 
 RCT_REMAP_METHOD(createPublicClientApplication,
                  config:(NSDictionary*)config
+                 handle:(NSString*)handle
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
 {
@@ -71,6 +72,7 @@ RCT_REMAP_METHOD(createPublicClientApplication,
 }
 
 RCT_REMAP_METHOD(acquireToken,
+                 handle:(NSString*)handle
                  interactiveParams:(NSDictionary*)params
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
@@ -124,6 +126,7 @@ RCT_REMAP_METHOD(acquireToken,
 }
 
 RCT_REMAP_METHOD(acquireTokenSilent,
+                 handle:(NSString*)handle
                  silentParams:(NSDictionary*)params
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
@@ -169,6 +172,8 @@ RCT_REMAP_METHOD(acquireTokenSilent,
 }
 
 RCT_REMAP_METHOD(getAccounts,
+                 handle:(NSString*)handle
+                 fields:(NSArray*)fields
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
 {
@@ -193,7 +198,9 @@ RCT_REMAP_METHOD(getAccounts,
 }
 
 RCT_REMAP_METHOD(getAccount,
+                 handle:(NSString*)handle
                  accoundIdentifier:(NSString*)accountIdentifier
+                 fields:(NSArray*)fields
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
 {
@@ -216,6 +223,7 @@ RCT_REMAP_METHOD(getAccount,
 }
 
 RCT_REMAP_METHOD(removeAccount,
+                 handle:(NSString*)handle
                  account:(NSDictionary*)account
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
@@ -246,6 +254,7 @@ RCT_REMAP_METHOD(removeAccount,
 }
 
 RCT_REMAP_METHOD(signout,
+                 handle:(NSString*)handle
                  signoutParams:(NSDictionary*)params
                  resolver:(RCTPromiseResolveBlock)resolve
                  rejecter:(RCTPromiseRejectBlock)reject)
@@ -290,6 +299,15 @@ RCT_REMAP_METHOD(signout,
     }
 }
 
+// Only one application is kept on iOS, so handles are ignored
+RCT_REMAP_METHOD(dispose,
+                 handle:(NSString*)handle
+                 resolver:(RCTPromiseResolveBlock)resolve
+                 rejecter:(RCTPromiseRejectBlock)reject)
+{
+    resolve(@YES);
+}
+
 - (NSDictionary*)MSALResultToDictionary:(nonnull MSALResult*)result withAuthority:(NSString*)authority
 {
     NSMutableDictionary *dict = [NSMutableDictionary dictionaryWithCapacity:1];
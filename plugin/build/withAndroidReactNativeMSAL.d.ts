@@ -1,2 +1,24 @@
 import { ConfigPlugin } from '@expo/config-plugins';
+export interface AndroidMSALConfig {
+    auth: {
+        clientId: string;
+        authority?: string;
+        knownAuthorities?: string[];
+        redirectUri?: string;
+    };
+    androidConfigOptions?: Record<string, unknown>;
+}
+export declare const MSAL_CONFIG_RESOURCE_NAME = "msal_config";
+export declare function makeMSALConfigJson(msalConfig: AndroidMSALConfig, packageName: string, signatureHash: string): {
+    account_mode: string;
+    authority: string;
+    client_id: string;
+    redirect_uri: string;
+    authorities: Record<string, unknown>[];
+    broker_redirect_uri_registered: boolean;
+};
 export declare const withAndroidReactNativeMSAL: ConfigPlugin<string>;
+export declare const withAndroidReactNativeMSALConfig: ConfigPlugin<{
+    androidPackageSignatureHash: string;
+    androidMsalConfig: AndroidMSALConfig;
+}>;
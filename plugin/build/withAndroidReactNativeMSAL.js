@@ -1,7 +1,9 @@
 "use strict";
 Object.defineProperty(exports, "__esModule", { value: true });
-exports.withAndroidReactNativeMSAL = void 0;
+exports.withAndroidReactNativeMSALConfig = exports.withAndroidReactNativeMSAL = exports.makeMSALConfigJson = exports.MSAL_CONFIG_RESOURCE_NAME = void 0;
 const config_plugins_1 = require("@expo/config-plugins");
+const fs_1 = require("fs");
+const path_1 = require("path");
 const { getMainApplicationOrThrow } = config_plugins_1.AndroidConfig.Manifest;
 const withAndroidActivity = (config, signatureHash) => {
     return (0, config_plugins_1.withAndroidManifest)(config, (mod) => {
@@ -60,7 +62,103 @@ function setGradleMaven(buildGradle) {
     }
     return buildGradle + `\n${gradleMaven}\n`;
 }
+// Name of the raw resource to pass as `androidConfigResource` in the MSALConfiguration
+exports.MSAL_CONFIG_RESOURCE_NAME = 'msal_config';
+const withAndroidMSALConfigResource = (config, { signatureHash, msalConfig }) => {
+    return (0, config_plugins_1.withDangerousMod)(config, [
+        'android',
+        async (mod) => {
+            var _a;
+            const packageName = (_a = config.android) === null || _a === void 0 ? void 0 : _a.package;
+            if (!packageName) {
+                throw new Error('android.package is required in your expo config');
+            }
+            const msalConfigJson = makeMSALConfigJson(msalConfig, packageName, signatureHash);
+            const resourcePath = (0, path_1.join)(mod.modRequest.platformProjectRoot, 'app/src/main/res/raw', `${exports.MSAL_CONFIG_RESOURCE_NAME}.json`);
+            await fs_1.promises.mkdir((0, path_1.dirname)(resourcePath), { recursive: true });
+            await fs_1.promises.writeFile(resourcePath, JSON.stringify(msalConfigJson, null, 2));
+            return mod;
+        },
+    ]);
+};
+// Builds the same configuration the native module builds at runtime when it isn't given a resource
+function makeMSALConfigJson(msalConfig, packageName, signatureHash) {
+    var _a, _b, _c;
+    const { auth, androidConfigOptions } = msalConfig;
+    if (!(auth === null || auth === void 0 ? void 0 : auth.clientId)) {
+        throw new Error('react-native-msal: androidMsalConfig.auth.clientId is required');
+    }
+    const authority = (_a = auth.authority) !== null && _a !== void 0 ? _a : 'https://login.microsoftonline.com/common';
+    const authorityUrls = [...((_b = auth.knownAuthorities) !== null && _b !== void 0 ? _b : [])];
+    if (!authorityUrls.includes(authority)) {
+        authorityUrls.push(authority);
+    }
+    return {
+        broker_redirect_uri_registered: false,
+        ...androidConfigOptions,
+        account_mode: 'MULTIPLE',
+        authority,
+        client_id: auth.clientId,
+        redirect_uri: (_c = auth.redirectUri) !== null && _c !== void 0 ? _c : `msauth://${packageName}/${encodeURIComponent(signatureHash)}`,
+        authorities: makeAuthoritiesJsonArray(authorityUrls, authority),
+    };
+}
+exports.makeMSALConfigJson = makeMSALConfigJson;
+const AAD_AUTHORITY_REGEX = /https:\/\/login\.microsoftonline\.com\/([^/]+)/;
+const B2C_AUTHORITY_REGEX = /https:\/\/([^/]+)\/tfp\/([^/]+)\/.+/;
+function makeAuthoritiesJsonArray(authorityUrls, authority) {
+    const authorities = [];
+    let foundDefaultAuthority = false;
+    for (const authorityUrl of authorityUrls) {
+        const authorityJson = {};
+        // Authority is set as the default if one is not set yet, and it matches `authority`
+        if (!foundDefaultAuthority && authorityUrl === authority) {
+            authorityJson.default = true;
+            foundDefaultAuthority = true;
+        }
+        const aadMatch = AAD_AUTHORITY_REGEX.exec(authorityUrl);
+        if (aadMatch) {
+            const group = aadMatch[1];
+            authorityJson.type = 'AAD';
+            switch (group) {
+                case 'common':
+                    authorityJson.audience = { type: 'AzureADandPersonalMicrosoftAccount' };
+                    break;
+                case 'organizations':
+                    authorityJson.audience = { type: 'AzureADMultipleOrgs' };
+                    break;
+                case 'consumers':
+                    authorityJson.audience = { type: 'PersonalMicrosoftAccount' };
+                    break;
+                default:
+                    // assume `group` is a tenant id
+                    authorityJson.audience = { type: 'AzureADMyOrg', tenant_id: group };
+                    break;
+            }
+        }
+        else if (B2C_AUTHORITY_REGEX.test(authorityUrl)) {
+            authorityJson.type = 'B2C';
+            authorityJson.authority_url = authorityUrl;
+        }
+        else {
+            throw new Error(`react-native-msal: Authority "${authorityUrl}" doesn't match AAD regex ${AAD_AUTHORITY_REGEX.source} or B2C regex ${B2C_AUTHORITY_REGEX.source}`);
+        }
+        authorities.push(authorityJson);
+    }
+    // If a default authority was not found, we set the first authority as the default
+    if (!foundDefaultAuthority && authorities.length > 0) {
+        authorities[0].default = true;
+    }
+    return authorities;
+}
 const withAndroidReactNativeMSAL = (config, androidPackageSignatureHash) => {
     return (0, config_plugins_1.withPlugins)(config, [[withAndroidActivity, androidPackageSignatureHash], withAndroidMSALGradle]);
 };
 exports.withAndroidReactNativeMSAL = withAndroidReactNativeMSAL;
+const withAndroidReactNativeMSALConfig = (config, { androidPackageSignatureHash, androidMsalConfig }) => {
+    return withAndroidMSALConfigResource(config, {
+        signatureHash: androidPackageSignatureHash,
+        msalConfig: androidMsalConfig,
+    });
+};
+exports.withAndroidReactNativeMSALConfig = withAndroidReactNativeMSALConfig;
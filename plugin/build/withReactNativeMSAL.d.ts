@@ -1,5 +1,7 @@
 import { ConfigPlugin } from '@expo/config-plugins';
+import { AndroidMSALConfig } from './withAndroidReactNativeMSAL';
 declare const withReactNativeMSAL: ConfigPlugin<{
     androidPackageSignatureHash: string;
+    androidMsalConfig?: AndroidMSALConfig;
 }>;
 export default withReactNativeMSAL;
@@ -3,7 +3,11 @@ Object.defineProperty(exports, "__esModule", { value: true });
 const config_plugins_1 = require("@expo/config-plugins");
 const withAndroidReactNativeMSAL_1 = require("./withAndroidReactNativeMSAL");
 const withIosReactNativeMSAL_1 = require("./withIosReactNativeMSAL");
-const withReactNativeMSAL = (config, { androidPackageSignatureHash }) => {
-    return (0, config_plugins_1.withPlugins)(config, [[withAndroidReactNativeMSAL_1.withAndroidReactNativeMSAL, androidPackageSignatureHash], withIosReactNativeMSAL_1.withIosReactNativeMSAL]);
+const withReactNativeMSAL = (config, { androidPackageSignatureHash, androidMsalConfig }) => {
+    config = (0, config_plugins_1.withPlugins)(config, [[withAndroidReactNativeMSAL_1.withAndroidReactNativeMSAL, androidPackageSignatureHash], withIosReactNativeMSAL_1.withIosReactNativeMSAL]);
+    if (androidMsalConfig) {
+        config = (0, withAndroidReactNativeMSAL_1.withAndroidReactNativeMSALConfig)(config, { androidPackageSignatureHash, androidMsalConfig });
+    }
+    return config;
 };
 exports.default = withReactNativeMSAL;
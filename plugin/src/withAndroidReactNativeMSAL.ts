@@ -4,8 +4,11 @@ import {
   AndroidConfig,
   withProjectBuildGradle,
   withPlugins,
+  withDangerousMod,
 } from '@expo/config-plugins';
 import type { ExpoConfig } from '@expo/config-types';
+import { promises as fs } from 'fs';
+import { dirname, join } from 'path';
 
 const { getMainApplicationOrThrow } = AndroidConfig.Manifest;
 
@@ -78,6 +81,132 @@ function setGradleMaven(buildGradle: string) {
   return buildGradle + `\n${gradleMaven}\n`;
 }
 
+export interface AndroidMSALConfig {
+  auth: {
+    clientId: string;
+    authority?: string;
+    knownAuthorities?: string[];
+    redirectUri?: string;
+  };
+  androidConfigOptions?: Record<string, unknown>;
+}
+
+// Name of the raw resource to pass as `androidConfigResource` in the MSALConfiguration
+export const MSAL_CONFIG_RESOURCE_NAME = 'msal_config';
+
+const withAndroidMSALConfigResource: ConfigPlugin<{ signatureHash: string; msalConfig: AndroidMSALConfig }> = (
+  config,
+  { signatureHash, msalConfig }
+) => {
+  return withDangerousMod(config, [
+    'android',
+    async (mod) => {
+      const packageName = config.android?.package;
+      if (!packageName) {
+        throw new Error('android.package is required in your expo config');
+      }
+      const msalConfigJson = makeMSALConfigJson(msalConfig, packageName, signatureHash);
+      const resourcePath = join(
+        mod.modRequest.platformProjectRoot,
+        'app/src/main/res/raw',
+        `${MSAL_CONFIG_RESOURCE_NAME}.json`
+      );
+      await fs.mkdir(dirname(resourcePath), { recursive: true });
+      await fs.writeFile(resourcePath, JSON.stringify(msalConfigJson, null, 2));
+      return mod;
+    },
+  ]);
+};
+
+// Builds the same configuration the native module builds at runtime when it isn't given a resource
+export function makeMSALConfigJson(msalConfig: AndroidMSALConfig, packageName: string, signatureHash: string) {
+  const { auth, androidConfigOptions } = msalConfig;
+  if (!auth?.clientId) {
+    throw new Error('react-native-msal: androidMsalConfig.auth.clientId is required');
+  }
+
+  const authority = auth.authority ?? 'https://login.microsoftonline.com/common';
+  const authorityUrls = [...(auth.knownAuthorities ?? [])];
+  if (!authorityUrls.includes(authority)) {
+    authorityUrls.push(authority);
+  }
+
+  return {
+    broker_redirect_uri_registered: false,
+    ...androidConfigOptions,
+    account_mode: 'MULTIPLE',
+    authority,
+    client_id: auth.clientId,
+    redirect_uri: auth.redirectUri ?? `msauth://${packageName}/${encodeURIComponent(signatureHash)}`,
+    authorities: makeAuthoritiesJsonArray(authorityUrls, authority),
+  };
+}
+
+const AAD_AUTHORITY_REGEX = /https:\/\/login\.microsoftonline\.com\/([^/]+)/;
+const B2C_AUTHORITY_REGEX = /https:\/\/([^/]+)\/tfp\/([^/]+)\/.+/;
+
+function makeAuthoritiesJsonArray(authorityUrls: string[], authority: string) {
+  const authorities: Record<string, unknown>[] = [];
+  let foundDefaultAuthority = false;
+
+  for (const authorityUrl of authorityUrls) {
+    const authorityJson: Record<string, unknown> = {};
+
+    // Authority is set as the default if one is not set yet, and it matches `authority`
+    if (!foundDefaultAuthority && authorityUrl === authority) {
+      authorityJson.default = true;
+      foundDefaultAuthority = true;
+    }
+
+    const aadMatch = AAD_AUTHORITY_REGEX.exec(authorityUrl);
+    if (aadMatch) {
+      const group = aadMatch[1];
+      authorityJson.type = 'AAD';
+      switch (group) {
+        case 'common':
+          authorityJson.audience = { type: 'AzureADandPersonalMicrosoftAccount' };
+          break;
+        case 'organizations':
+          authorityJson.audience = { type: 'AzureADMultipleOrgs' };
+          break;
+        case 'consumers':
+          authorityJson.audience = { type: 'PersonalMicrosoftAccount' };
+          break;
+        default:
+          // assume `group` is a tenant id
+          authorityJson.audience = { type: 'AzureADMyOrg', tenant_id: group };
+          break;
+      }
+    } else if (B2C_AUTHORITY_REGEX.test(authorityUrl)) {
+      authorityJson.type = 'B2C';
+      authorityJson.authority_url = authorityUrl;
+    } else {
+      throw new Error(
+        `react-native-msal: Authority "${authorityUrl}" doesn't match AAD regex ${AAD_AUTHORITY_REGEX.source} or B2C regex ${B2C_AUTHORITY_REGEX.source}`
+      );
+    }
+
+    authorities.push(authorityJson);
+  }
+
+  // If a default authority was not found, we set the first authority as the default
+  if (!foundDefaultAuthority && authorities.length > 0) {
+    authorities[0].default = true;
+  }
+
+  return authorities;
+}
+
 export const withAndroidReactNativeMSAL: ConfigPlugin<string> = (config, androidPackageSignatureHash) => {
   return withPlugins(config, [[withAndroidActivity, androidPackageSignatureHash], withAndroidMSALGradle]);
 };
+
+export const withAndroidReactNativeMSALConfig: ConfigPlugin<{
+  androidPackageSignatureHash: string;
+  androidMsalConfig: AndroidMSALConfig;
+}> = (config, { androidPackageSignatureHash, androidMsalConfig }) => {
+  return withAndroidMSALConfigResource(config, {
+    signatureHash: androidPackageSignatureHash,
+    msalConfig: androidMsalConfig,
+  });
+};
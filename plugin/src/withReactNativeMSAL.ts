@@ -1,13 +1,21 @@
 import { ConfigPlugin, withPlugins } from '@expo/config-plugins';
 
-import { withAndroidReactNativeMSAL } from './withAndroidReactNativeMSAL';
+import {
+  AndroidMSALConfig,
+  withAndroidReactNativeMSAL,
+  withAndroidReactNativeMSALConfig,
+} from './withAndroidReactNativeMSAL';
 import { withIosReactNativeMSAL } from './withIosReactNativeMSAL';
 
-const withReactNativeMSAL: ConfigPlugin<{ androidPackageSignatureHash: string }> = (
-  config,
-  { androidPackageSignatureHash }
-) => {
-  return withPlugins(config, [[withAndroidReactNativeMSAL, androidPackageSignatureHash], withIosReactNativeMSAL]);
+const withReactNativeMSAL: ConfigPlugin<{
+  androidPackageSignatureHash: string;
+  androidMsalConfig?: AndroidMSALConfig;
+}> = (config, { androidPackageSignatureHash, androidMsalConfig }) => {
+  config = withPlugins(config, [[withAndroidReactNativeMSAL, androidPackageSignatureHash], withIosReactNativeMSAL]);
+  if (androidMsalConfig) {
+    config = withAndroidReactNativeMSALConfig(config, { androidPackageSignatureHash, androidMsalConfig });
+  }
+  return config;
 };
 
 export default withReactNativeMSAL;
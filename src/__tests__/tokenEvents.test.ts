@@ -0,0 +1,107 @@
+import RNMSAL from '../nativeModule';
+import { PublicClientApplication } from '../publicClientApplication.native';
+import { MSAL_TOKEN_EVENT } from '../types';
+import type { MSALConfiguration, MSALTokenEvent } from '../types';
+
+jest.mock('../nativeModule', () => ({
+  __esModule: true,
+  default: {
+    createPublicClientApplication: jest.fn(async (_config: unknown, handle: string) => handle),
+    streamAccounts: jest.fn(async () => 0),
+    addListener: jest.fn(),
+    removeListener: jest.fn(),
+    removeListeners: jest.fn(),
+  },
+}));
+
+// Stands in for the events sent by the native module
+const mockListeners: { eventName: string; listener: (event: any) => void; isRemoved: boolean }[] = [];
+
+jest.mock('react-native', () => ({
+  Platform: {
+    OS: 'android',
+    select: (specifics: { [platform: string]: unknown }) =>
+      'android' in specifics ? specifics.android : specifics.default,
+  },
+  NativeEventEmitter: class {
+    addListener(eventName: string, listener: (event: any) => void) {
+      const entry = { eventName, listener, isRemoved: false };
+      mockListeners.push(entry);
+      return {
+        remove: () => {
+          entry.isRemoved = true;
+        },
+      };
+    }
+  },
+}));
+
+const testMsalConfig: MSALConfiguration = {
+  auth: {
+    clientId: '1234',
+  },
+};
+
+function emit(eventName: string, event: unknown) {
+  mockListeners.filter((l) => l.eventName === eventName && !l.isRemoved).forEach((l) => l.listener(event));
+}
+
+function makeTokenEvent(handle: string): MSALTokenEvent {
+  return { handle, type: 'accountRemoved', accountIdentifier: 'account' };
+}
+
+describe('addTokenEventListener on Android', () => {
+  const native = RNMSAL as jest.Mocked<typeof RNMSAL>;
+
+  beforeEach(() => {
+    jest.clearAllMocks();
+    mockListeners.length = 0;
+  });
+
+  it('counts the listener natively under the token event name', async () => {
+    const pca = await new PublicClientApplication(testMsalConfig).init();
+
+    const subscription = pca.addTokenEventListener(() => {});
+
+    expect(native.addListener).toHaveBeenCalledTimes(1);
+    expect(native.addListener).toHaveBeenCalledWith(MSAL_TOKEN_EVENT);
+    expect(native.removeListener).not.toHaveBeenCalled();
+    subscription.remove();
+  });
+
+  it('uncounts the listener once, however often it is removed', async () => {
+    const pca = await new PublicClientApplication(testMsalConfig).init();
+    const subscription = pca.addTokenEventListener(() => {});
+
+    subscription.remove();
+    subscription.remove();
+
+    expect(native.removeListener).toHaveBeenCalledTimes(1);
+    expect(native.removeListener).toHaveBeenCalledWith(MSAL_TOKEN_EVENT);
+  });
+
+  it('delivers only the events of its own application', async () => {
+    const pca = await new PublicClientApplication(testMsalConfig).init();
+    await new PublicClientApplication(testMsalConfig).init();
+    const [[, handle], [, otherHandle]] = native.createPublicClientApplication.mock.calls;
+    const listener = jest.fn();
+    const subscription = pca.addTokenEventListener(listener);
+
+    emit(MSAL_TOKEN_EVENT, makeTokenEvent(otherHandle!));
+    emit(MSAL_TOKEN_EVENT, makeTokenEvent(handle!));
+    subscription.remove();
+    emit(MSAL_TOKEN_EVENT, makeTokenEvent(handle!));
+
+    expect(listener).toHaveBeenCalledTimes(1);
+    expect(listener).toHaveBeenCalledWith(makeTokenEvent(handle!));
+  });
+
+  it("doesn't count account stream subscriptions as token listeners", async () => {
+    const pca = await new PublicClientApplication(testMsalConfig).init();
+
+    await pca.streamAccounts(() => {});
+
+    expect(native.addListener).not.toHaveBeenCalled();
+    expect(native.removeListener).not.toHaveBeenCalled();
+  });
+});
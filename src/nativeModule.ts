@@ -4,19 +4,77 @@ import type {
   MSALResult,
   MSALInteractiveParams,
   MSALSilentParams,
+  MSALSilentBatchResult,
   MSALSignoutParams,
   MSALAccount,
+  MSALAccountField,
   MSALConfiguration,
+  MSALMetrics,
+  MSALTokenSnapshot,
+  MSALTokenClaims,
+  MSALTokenClaimsOptions,
+  MSALAccountChanges,
 } from './types';
 
 type RNMSALNativeModule = {
-  createPublicClientApplication(config: MSALConfiguration): Promise<void>;
-  acquireToken(params: MSALInteractiveParams): Promise<MSALResult | undefined>;
-  acquireTokenSilent(params: MSALSilentParams): Promise<MSALResult | undefined>;
-  getAccounts(): Promise<MSALAccount[]>;
-  getAccount(accountIdentifier: string): Promise<MSALAccount | undefined>;
-  removeAccount(account: MSALAccount): Promise<boolean>;
-  signout(params: MSALSignoutParams): Promise<boolean>;
+  // Resolves the handle of the new application on Android, and null on iOS, where handles are ignored.
+  // Calls made with the handle before this resolves are held until it does on Android.
+  createPublicClientApplication(config: MSALConfiguration, handle: string | null): Promise<string | null>;
+  acquireToken(handle: string | null, params: MSALInteractiveParams): Promise<MSALResult | undefined>;
+  acquireTokenSilent(handle: string | null, params: MSALSilentParams): Promise<MSALResult | undefined>;
+  acquireTokenSilentBatch(handle: string | null, params: MSALSilentParams[]): Promise<MSALSilentBatchResult[]>;
+  getCachedAccessTokenSync(
+    handle: string | null,
+    accountIdentifier: string,
+    scopes: string[],
+    authority: string | null
+  ): string | null;
+  cancel(requestId: string): Promise<boolean>;
+  getTokenSnapshot(
+    accountIdentifier: string,
+    scopes: string[],
+    authority: string | null
+  ): Promise<MSALTokenSnapshot | null>;
+  getTokenClaims(
+    handle: string | null,
+    accountIdentifier: string,
+    claimNames: string[],
+    options: MSALTokenClaimsOptions | null
+  ): Promise<MSALTokenClaims | null>;
+  getAccounts(handle: string | null, fields: MSALAccountField[] | null): Promise<MSALAccount[]>;
+  getAccountsSince(
+    handle: string | null,
+    changeToken: string | null,
+    fields: MSALAccountField[] | null
+  ): Promise<MSALAccountChanges>;
+  getAccountsPage(
+    handle: string | null,
+    cursor: string | null,
+    limit: number,
+    fields: MSALAccountField[] | null
+  ): Promise<{ accounts: MSALAccount[]; nextCursor: string | null }>;
+  streamAccounts(
+    handle: string | null,
+    streamId: string,
+    chunkSize: number,
+    fields: MSALAccountField[] | null
+  ): Promise<number>;
+  getAccount(
+    handle: string | null,
+    accountIdentifier: string,
+    fields: MSALAccountField[] | null
+  ): Promise<MSALAccount | undefined>;
+  removeAccount(handle: string | null, account: MSALAccount): Promise<boolean>;
+  signout(handle: string | null, params: MSALSignoutParams): Promise<boolean>;
+  dispose(handle: string | null): Promise<boolean>;
+  getMetrics(): Promise<MSALMetrics>;
+  resetMetrics(): Promise<void>;
+  // Reference counting of event listeners by event name, so that events nobody listens to aren't
+  // built. Android only, where NativeEventEmitter doesn't forward subscriptions to older versions.
+  addListener(eventName: string): void;
+  removeListener(eventName: string): void;
+  // Required by NativeEventEmitter, ignored
+  removeListeners(count: number): void;
 };
 
 const RNMSAL: RNMSALNativeModule = NativeModules.RNMSAL;
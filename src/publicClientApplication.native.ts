@@ -1,61 +1,272 @@
-import { Platform } from 'react-native';
+import { NativeEventEmitter, Platform } from 'react-native';
 
 import RNMSAL from './nativeModule';
 import type {
   MSALConfiguration,
   MSALInteractiveParams,
   MSALSilentParams,
+  MSALSilentBatchResult,
   MSALAccount,
+  MSALAccountField,
   MSALSignoutParams,
+  MSALMetrics,
+  MSALSubscription,
+  MSALTokenEvent,
+  MSALTokenClaims,
+  MSALTokenClaimsOptions,
+  MSALAccountChanges,
+  MSALAccountsChunkEvent,
+  MSALStreamAccountsOptions,
   IPublicClientApplication,
 } from './types';
+import { MSAL_ACCOUNTS_CHUNK_EVENT, MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE, MSAL_TOKEN_EVENT } from './types';
+
+let eventEmitter: NativeEventEmitter | undefined;
+let nextStreamId = 0;
+// Handles are chosen here rather than natively, so that calls can be made before init resolves.
+// The prefix keeps them unique if the native module outlives a JS reload.
+const handlePrefix = Math.random().toString(36).slice(2);
+let nextHandle = 0;
 
 export class PublicClientApplication implements IPublicClientApplication {
+  private initPromise: Promise<this> | undefined;
   private isInitialized: boolean = false;
+  private handle: string | null = null;
 
   constructor(private readonly config: MSALConfiguration) {}
 
   public async init() {
-    if (!this.isInitialized) {
-      await RNMSAL.createPublicClientApplication(this.config);
-      this.isInitialized = true;
+    if (!this.initPromise) {
+      this.handle = `${handlePrefix}-${nextHandle++}`;
+      this.initPromise = RNMSAL.createPublicClientApplication(this.config, this.handle).then(
+        () => {
+          this.isInitialized = true;
+          return this;
+        },
+        (error) => {
+          this.initPromise = undefined;
+          this.handle = null;
+          throw error;
+        }
+      );
     }
-    return this;
+    return await this.initPromise;
   }
 
   public async acquireToken(params: MSALInteractiveParams) {
-    this.validateIsInitialized();
-    return await RNMSAL.acquireToken(params);
+    await this.whenReady();
+    return await RNMSAL.acquireToken(this.handle, params);
   }
 
   public async acquireTokenSilent(params: MSALSilentParams) {
-    this.validateIsInitialized();
-    return await RNMSAL.acquireTokenSilent(params);
+    await this.whenReady();
+    return await RNMSAL.acquireTokenSilent(this.handle, params);
   }
 
-  public async getAccounts() {
-    this.validateIsInitialized();
-    return await RNMSAL.getAccounts();
+  public async acquireTokenSilentBatch(params: MSALSilentParams[]) {
+    await this.whenReady();
+    return await Platform.select({
+      android: async () => await RNMSAL.acquireTokenSilentBatch(this.handle, params),
+      default: async () =>
+        await Promise.all(
+          params.map(async (p): Promise<MSALSilentBatchResult> => {
+            try {
+              return { result: await RNMSAL.acquireTokenSilent(this.handle, p) };
+            } catch (error: any) {
+              return { error: { code: error.code, message: error.message } };
+            }
+          })
+        ),
+    })();
   }
 
-  public async getAccount(accountIdentifier: string) {
+  public async cancel(requestId: string) {
+    return await Platform.select({
+      android: async () => await RNMSAL.cancel(requestId),
+      default: async () => false,
+    })();
+  }
+
+  public getCachedAccessTokenSync(accountIdentifier: string, scopes: string[], authority?: string) {
     this.validateIsInitialized();
-    return await RNMSAL.getAccount(accountIdentifier);
+    return Platform.select({
+      android: () =>
+        RNMSAL.getCachedAccessTokenSync(this.handle, accountIdentifier, scopes, authority ?? null) ?? undefined,
+      default: () => undefined,
+    })();
+  }
+
+  public async getTokenSnapshot(accountIdentifier: string, scopes: string[], authority?: string) {
+    // Doesn't need init, the snapshot is read straight from storage
+    return await Platform.select({
+      android: async () =>
+        (await RNMSAL.getTokenSnapshot(accountIdentifier, scopes, authority ?? null)) ?? undefined,
+      default: async () => undefined,
+    })();
+  }
+
+  public async getTokenClaims(accountIdentifier: string, claimNames: string[], options?: MSALTokenClaimsOptions) {
+    await this.whenReady();
+    return await Platform.select({
+      android: async () =>
+        (await RNMSAL.getTokenClaims(this.handle, accountIdentifier, claimNames, options ?? null)) ?? undefined,
+      default: async () => {
+        // The account's claims are those of its id token
+        const account = options?.scopes ? undefined : await RNMSAL.getAccount(this.handle, accountIdentifier, null);
+        return account?.claims ? pickClaims(account.claims as MSALTokenClaims, claimNames) : undefined;
+      },
+    })();
+  }
+
+  public async getAccounts(fields?: MSALAccountField[]) {
+    await this.whenReady();
+    return await RNMSAL.getAccounts(this.handle, fields ?? null);
+  }
+
+  public async getAccountsSince(changeToken?: string, fields?: MSALAccountField[]) {
+    await this.whenReady();
+    return await Platform.select({
+      android: async () => await RNMSAL.getAccountsSince(this.handle, changeToken ?? null, fields ?? null),
+      default: async (): Promise<MSALAccountChanges> => ({
+        changeToken: '',
+        reset: true,
+        added: await RNMSAL.getAccounts(this.handle, fields ?? null),
+        updated: [],
+        removed: [],
+      }),
+    })();
+  }
+
+  public async getAccountsPage(cursor?: string, limit?: number, fields?: MSALAccountField[]) {
+    await this.whenReady();
+    const pageSize = limit ?? MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE;
+    return await Platform.select({
+      android: async () => {
+        const page = await RNMSAL.getAccountsPage(this.handle, cursor ?? null, pageSize, fields ?? null);
+        return { accounts: page.accounts, nextCursor: page.nextCursor ?? undefined };
+      },
+      default: async () => {
+        const accounts = sortByIdentifier(await RNMSAL.getAccounts(this.handle, fields ?? null));
+        const start = cursor === undefined ? 0 : accounts.findIndex((a) => a.identifier > cursor);
+        const page = start < 0 ? [] : accounts.slice(start, start + pageSize);
+        const hasMore = start >= 0 && start + pageSize < accounts.length;
+        return { accounts: page, nextCursor: hasMore ? page[page.length - 1]!.identifier : undefined };
+      },
+    })();
+  }
+
+  public async streamAccounts(onChunk: (accounts: MSALAccount[]) => void, options?: MSALStreamAccountsOptions) {
+    await this.whenReady();
+    const chunkSize = options?.chunkSize ?? MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE;
+    const fields = options?.fields ?? null;
+    return await Platform.select({
+      android: async () => {
+        const streamId = `${this.handle}:${nextStreamId++}`;
+        // Subscribed before the call, since the first chunk may be emitted before it resolves
+        eventEmitter = eventEmitter ?? makeEventEmitter();
+        const subscription = eventEmitter.addListener(MSAL_ACCOUNTS_CHUNK_EVENT, (event: MSALAccountsChunkEvent) => {
+          if (event.streamId === streamId && event.accounts.length > 0) {
+            onChunk(event.accounts);
+          }
+        });
+        try {
+          return await RNMSAL.streamAccounts(this.handle, streamId, chunkSize, fields);
+        } finally {
+          subscription.remove();
+        }
+      },
+      default: async () => {
+        const accounts = sortByIdentifier(await RNMSAL.getAccounts(this.handle, fields));
+        for (let i = 0; i < accounts.length; i += chunkSize) {
+          onChunk(accounts.slice(i, i + chunkSize));
+        }
+        return accounts.length;
+      },
+    })();
+  }
+
+  public async getAccount(accountIdentifier: string, fields?: MSALAccountField[]) {
+    await this.whenReady();
+    return await RNMSAL.getAccount(this.handle, accountIdentifier, fields ?? null);
   }
 
   public async removeAccount(account: MSALAccount) {
-    this.validateIsInitialized();
-    return await RNMSAL.removeAccount(account);
+    await this.whenReady();
+    return await RNMSAL.removeAccount(this.handle, account);
   }
 
   public async signOut(params: MSALSignoutParams) {
-    this.validateIsInitialized();
+    await this.whenReady();
+    return await Platform.select({
+      ios: async () => await RNMSAL.signout(this.handle, params),
+      default: async () => await RNMSAL.removeAccount(this.handle, params.account),
+    })();
+  }
+
+  public async getMetrics() {
     return await Platform.select({
-      ios: async () => await RNMSAL.signout(params),
-      default: async () => await RNMSAL.removeAccount(params.account),
+      android: async () => await RNMSAL.getMetrics(),
+      default: async (): Promise<MSALMetrics> => ({ methods: {}, counters: {} }),
     })();
   }
 
+  public async resetMetrics() {
+    return await Platform.select({
+      android: async () => await RNMSAL.resetMetrics(),
+      default: async () => {},
+    })();
+  }
+
+  public addTokenEventListener(listener: (event: MSALTokenEvent) => void): MSALSubscription {
+    return Platform.select({
+      android: () => {
+        eventEmitter = eventEmitter ?? makeEventEmitter();
+        const subscription = eventEmitter.addListener(MSAL_TOKEN_EVENT, (event: MSALTokenEvent) => {
+          if (event.handle === this.handle) {
+            listener(event);
+          }
+        });
+        // Token events are only built natively while they have listeners
+        RNMSAL.addListener(MSAL_TOKEN_EVENT);
+        let isRemoved = false;
+        return {
+          remove() {
+            if (!isRemoved) {
+              isRemoved = true;
+              subscription.remove();
+              RNMSAL.removeListener(MSAL_TOKEN_EVENT);
+            }
+          },
+        };
+      },
+      default: () => ({ remove() {} }),
+    })();
+  }
+
+  public async dispose() {
+    if (this.initPromise) {
+      const handle = this.handle;
+      this.initPromise = undefined;
+      this.handle = null;
+      this.isInitialized = false;
+      // If init is still in progress, Android disposes the application once it is created
+      await RNMSAL.dispose(handle);
+    }
+  }
+
+  // Android holds calls made while init is in progress until it is done, other platforms need
+  // the application to be created first
+  private async whenReady() {
+    if (!this.initPromise) {
+      throw new Error(
+        'PublicClientApplication is not initialized. You must call the `init` method before any other method.'
+      );
+    }
+    if (Platform.OS !== 'android') {
+      await this.initPromise;
+    }
+  }
+
   private validateIsInitialized() {
     if (!this.isInitialized) {
       throw new Error(
@@ -64,3 +275,24 @@ export class PublicClientApplication implements IPublicClientApplication {
     }
   }
 }
+
+// Listeners are counted by calling the native module explicitly, per event name, since before React
+// Native 0.65 NativeEventEmitter only forwards subscriptions to it on iOS. It is left out here, so
+// that newer versions don't count them a second time, and under no event name.
+function makeEventEmitter() {
+  return new NativeEventEmitter();
+}
+
+function sortByIdentifier(accounts: MSALAccount[]): MSALAccount[] {
+  return [...accounts].sort((a, b) => (a.identifier < b.identifier ? -1 : a.identifier > b.identifier ? 1 : 0));
+}
+
+function pickClaims(claims: MSALTokenClaims, claimNames: string[]): MSALTokenClaims {
+  const picked: MSALTokenClaims = {};
+  for (const name of claimNames) {
+    if (name in claims) {
+      picked[name] = claims[name]!;
+    }
+  }
+  return picked;
+}
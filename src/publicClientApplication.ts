@@ -7,9 +7,18 @@ import type {
   MSALAccount,
   MSALSignoutParams,
   MSALResult,
+  MSALSilentBatchResult,
+  MSALMetrics,
+  MSALSubscription,
+  MSALTokenSnapshot,
+  MSALTokenClaims,
+  MSALTokenClaimsOptions,
+  MSALAccountChanges,
+  MSALAccountsPage,
+  MSALStreamAccountsOptions,
   IPublicClientApplication,
 } from './types';
-import { MSALPromptType } from './types';
+import { MSALPromptType, MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE } from './types';
 
 export class PublicClientApplication implements IPublicClientApplication {
   private _pca: MSALPublicClientApplication;
@@ -73,6 +82,49 @@ export class PublicClientApplication implements IPublicClientApplication {
     return result;
   }
 
+  public async acquireTokenSilentBatch(params: MSALSilentParams[]): Promise<MSALSilentBatchResult[]> {
+    return await Promise.all(
+      params.map(async (p): Promise<MSALSilentBatchResult> => {
+        try {
+          return { result: await this.acquireTokenSilent(p) };
+        } catch (error: any) {
+          return { error: { code: error.errorCode ?? error.name, message: error.message } };
+        }
+      })
+    );
+  }
+
+  public async cancel() {
+    return false;
+  }
+
+  public async getTokenSnapshot(): Promise<MSALTokenSnapshot | undefined> {
+    return undefined;
+  }
+
+  public getCachedAccessTokenSync(): string | undefined {
+    // msal-browser only reads its token cache asynchronously
+    return undefined;
+  }
+
+  public async getTokenClaims(
+    accountIdentifier: string,
+    claimNames: string[],
+    options?: MSALTokenClaimsOptions
+  ): Promise<MSALTokenClaims | undefined> {
+    const claims = options?.scopes ? undefined : this._pca.getAccountByHomeId(accountIdentifier)?.idTokenClaims;
+    if (claims == null) {
+      return undefined;
+    }
+    const picked: MSALTokenClaims = {};
+    for (const name of claimNames) {
+      if (name in claims) {
+        picked[name] = (claims as MSALTokenClaims)[name]!;
+      }
+    }
+    return picked;
+  }
+
   public getAccounts() {
     const accounts = this._pca.getAllAccounts();
     return Promise.resolve(
@@ -84,6 +136,31 @@ export class PublicClientApplication implements IPublicClientApplication {
     );
   }
 
+  public async getAccountsSince(): Promise<MSALAccountChanges> {
+    return { changeToken: '', reset: true, added: await this.getAccounts(), updated: [], removed: [] };
+  }
+
+  public async getAccountsPage(cursor?: string, limit?: number): Promise<MSALAccountsPage> {
+    const pageSize = limit ?? MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE;
+    const accounts = sortByIdentifier(await this.getAccounts());
+    const start = cursor === undefined ? 0 : accounts.findIndex((a) => a.identifier > cursor);
+    const page = start < 0 ? [] : accounts.slice(start, start + pageSize);
+    const hasMore = start >= 0 && start + pageSize < accounts.length;
+    return { accounts: page, nextCursor: hasMore ? page[page.length - 1]!.identifier : undefined };
+  }
+
+  public async streamAccounts(
+    onChunk: (accounts: MSALAccount[]) => void,
+    options?: MSALStreamAccountsOptions
+  ): Promise<number> {
+    const chunkSize = options?.chunkSize ?? MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE;
+    const accounts = sortByIdentifier(await this.getAccounts());
+    for (let i = 0; i < accounts.length; i += chunkSize) {
+      onChunk(accounts.slice(i, i + chunkSize));
+    }
+    return accounts.length;
+  }
+
   public getAccount(accountIdentifier: string): Promise<MSALAccount | undefined> {
     const account = this._pca.getAccountByHomeId(accountIdentifier);
     if (account == null) {
@@ -110,6 +187,18 @@ export class PublicClientApplication implements IPublicClientApplication {
   public async signOut(params: MSALSignoutParams) {
     return await this.removeAccount(params.account);
   }
+
+  public async getMetrics(): Promise<MSALMetrics> {
+    return { methods: {}, counters: {} };
+  }
+
+  public async resetMetrics() {}
+
+  public addTokenEventListener(): MSALSubscription {
+    return { remove() {} };
+  }
+
+  public async dispose() {}
 }
 
 type PromptTypeString = 'consent' | 'login' | 'select_account' | 'none';
@@ -125,3 +214,7 @@ function promptTypeToString(promptType: MSALPromptType): PromptTypeString {
       return 'none';
   }
 }
+
+function sortByIdentifier(accounts: MSALAccount[]): MSALAccount[] {
+  return accounts.sort((a, b) => (a.identifier < b.identifier ? -1 : a.identifier > b.identifier ? 1 : 0));
+}
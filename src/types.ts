@@ -18,18 +18,123 @@ export interface IPublicClientApplication {
    */
   acquireTokenSilent(params: MSALSilentParams): Promise<MSALResult | undefined>;
 
+  /**
+   * Acquire several tokens silently in one call
+   * @param {MSALSilentParams[]} params - One entry per token to acquire. The `timeoutMs` and
+   * `requestId` of an entry apply to that entry only.
+   * @return Promise containing one MSALSilentBatchResult per entry in `params`, in the same order.
+   * The promise itself only rejects if the batch as a whole could not be started.
+   */
+  acquireTokenSilentBatch(params: MSALSilentParams[]): Promise<MSALSilentBatchResult[]>;
+
+  /**
+   * Cancel a pending `acquireToken` or `acquireTokenSilent` call that was made with `requestId`.
+   * Its promise rejects with the error code `cancelled`. Sign in UI that is already showing is
+   * not closed, and MSAL's request still completes in the background, but its result is
+   * discarded.
+   * @param requestId - The `requestId` of the call
+   * @return Whether a pending call with the id was found
+   * @platform android
+   */
+  cancel(requestId: string): Promise<boolean>;
+
+  /**
+   * Synchronously get an access token that was previously acquired and is still valid, without
+   * going to MSAL or the network. Use acquireTokenSilent when this returns undefined.
+   * Only tokens in the in-memory token cache are returned, so this always returns undefined on
+   * platforms other than Android, or when `tokenCache` is disabled.
+   * @param accountIdentifier - The identifier of the account the token was acquired for
+   * @param scopes - Permissions the access token must include
+   * @param authority - The authority the token was acquired from. If not included, authority
+   * from MSALConfiguration will be used.
+   * @return The access token, or undefined if there's no valid cached token
+   */
+  getCachedAccessTokenSync(accountIdentifier: string, scopes: string[], authority?: string): string | undefined;
+
+  /**
+   * Read a still-valid access token from the encrypted token snapshot, which persists across app
+   * launches when `tokenSnapshot` is enabled. Unlike the other methods, this can be called before
+   * or while `init` runs, so the first request after a cold start doesn't have to wait for MSAL.
+   * @param accountIdentifier - The identifier of the account the token was acquired for
+   * @param scopes - Permissions the access token must include
+   * @param authority - The authority the token was acquired from. If not included, tokens from
+   * any authority match.
+   * @return The token, or undefined if there's no valid token in the snapshot. Always undefined
+   * on platforms other than Android, and on Android versions before 6.0.
+   */
+  getTokenSnapshot(
+    accountIdentifier: string,
+    scopes: string[],
+    authority?: string
+  ): Promise<MSALTokenSnapshot | undefined>;
+
+  /**
+   * Get claims of the account's id token, or of a cached access token. The token is decoded
+   * natively once and its claims are kept, so this is cheap to call repeatedly, e.g. to check
+   * roles or expiry. Numeric claims such as `exp` and `iat` are returned as numbers.
+   * @param accountIdentifier - The identifier of the account the token belongs to
+   * @param claimNames - The claims to return. Claims the token doesn't have are left out.
+   * @param options - Pass `scopes` to read the claims of the access token for these scopes
+   * instead of the id token. Only tokens in the in-memory token cache are decoded, so this
+   * applies on Android only.
+   * @return The claims, or undefined if there's no such token
+   */
+  getTokenClaims(
+    accountIdentifier: string,
+    claimNames: string[],
+    options?: MSALTokenClaimsOptions
+  ): Promise<MSALTokenClaims | undefined>;
+
   /**
    * Get all accounts for which this application has refresh tokens
    * @return Promise containing array of MSALAccount objects for which this application
    * has refresh tokens.
+   * @param fields Optional subset of account fields to return. Applies on Android only; other
+   * platforms always return full account objects.
    */
-  getAccounts(): Promise<MSALAccount[]>;
+  getAccounts(fields?: MSALAccountField[]): Promise<MSALAccount[]>;
+
+  /**
+   * Get the accounts that were added, updated or removed since a previous call, instead of all
+   * accounts. Accounts are tracked natively as they sign in interactively and are removed, so
+   * when nothing changed this is a cheap call with empty results.
+   * @param changeToken - The `changeToken` of the previous result. Pass undefined, or a token
+   * from before the app was restarted, to get all accounts as `added` with `reset` set.
+   * @param fields Optional subset of account fields to return
+   * @return Promise containing the changes and the token to pass next time. On platforms other
+   * than Android, all accounts are always returned with `reset` set.
+   */
+  getAccountsSince(changeToken?: string, fields?: MSALAccountField[]): Promise<MSALAccountChanges>;
+
+  /**
+   * Get a page of accounts, ordered by identifier, instead of all accounts at once
+   * @param cursor - The `nextCursor` of the previous page, or undefined for the first page
+   * @param limit - Maximum number of accounts in the page. 20 by default.
+   * @param fields Optional subset of account fields to return. Applies on Android only.
+   * @return Promise containing the accounts and the cursor of the next page, which is undefined
+   * after the last page
+   */
+  getAccountsPage(cursor?: string, limit?: number, fields?: MSALAccountField[]): Promise<MSALAccountsPage>;
+
+  /**
+   * Get all accounts in chunks, so that the first accounts can be shown before all are loaded.
+   * On Android, each chunk is converted and sent separately; on other platforms all accounts
+   * are loaded at once and passed in chunks.
+   * @param onChunk - Called with each chunk of accounts, in order of identifier
+   * @return Promise containing the number of accounts, resolved after the last chunk
+   */
+  streamAccounts(
+    onChunk: (accounts: MSALAccount[]) => void,
+    options?: MSALStreamAccountsOptions
+  ): Promise<number>;
 
   /**
    * Retrieve the account matching the identifier
+   * @param fields Optional subset of account fields to return. Applies on Android only; other
+   * platforms always return full account objects.
    * @return Promise containing MSALAccount object
    */
-  getAccount(accountIdentifier: string): Promise<MSALAccount | undefined>;
+  getAccount(accountIdentifier: string, fields?: MSALAccountField[]): Promise<MSALAccount | undefined>;
 
   /**
    * Removes all tokens from the cache for this application for the provided
@@ -50,6 +155,39 @@ export interface IPublicClientApplication {
    * @platform ios
    */
   signOut(params: MSALSignoutParams): Promise<boolean>;
+
+  /**
+   * Get the call counts, latencies and errors recorded for this library's native calls, and
+   * counters such as token cache hits. Metrics are only recorded on Android; other platforms
+   * return empty metrics.
+   * @return Promise containing the metrics recorded since the app started, or since the last
+   * call to `resetMetrics`
+   * @platform android
+   */
+  getMetrics(): Promise<MSALMetrics>;
+
+  /**
+   * Discard all recorded metrics
+   * @platform android
+   */
+  resetMetrics(): Promise<void>;
+
+  /**
+   * Listen for changes to tokens and accounts instead of polling `acquireTokenSilent`. Events are
+   * only built and sent while at least one listener is registered.
+   * @param listener - Called with each MSALTokenEvent
+   * @return A subscription whose `remove` method unregisters the listener
+   * @platform android
+   */
+  addTokenEventListener(listener: (event: MSALTokenEvent) => void): MSALSubscription;
+
+  /**
+   * Stop background token renewal and drop the cached tokens of this instance. Accounts and
+   * tokens in MSAL's own cache are kept. Call `init` again before using this instance afterwards.
+   * On Android, any number of instances can be initialized at once, e.g. one per tenant, and
+   * each keeps its own state until it is disposed.
+   */
+  dispose(): Promise<void>;
 }
 
 export interface MSALConfiguration {
@@ -83,6 +221,338 @@ export interface MSALConfiguration {
    * @platform android
    */
   androidConfigOptions?: MSALAndroidConfigOptions;
+  /**
+   * Name of a raw resource containing a complete MSAL configuration, e.g. the `msal_config` resource
+   * generated by the Expo config plugin from its `androidMsalConfig` option. When set, the client is
+   * created directly from that resource, and `auth` and `androidConfigOptions` are ignored on Android.
+   * A fully qualified name (e.g. `com.example:raw/msal_config`) may be used if the app's resources
+   * are in a different package than its application id.
+   * @platform android
+   */
+  androidConfigResource?: string;
+  /**
+   * Options for the in-memory access token cache that sits in front of MSAL's own cache
+   * @platform android
+   */
+  tokenCache?: MSALTokenCacheOptions;
+  /**
+   * Options for renewing access tokens in the background before they expire
+   * @platform android
+   */
+  tokenRefresh?: MSALTokenRefreshOptions;
+  /**
+   * Options for recording metrics about this library's native calls
+   * @platform android
+   */
+  metrics?: MSALMetricsOptions;
+  /**
+   * Scope sets to acquire tokens for silently right after each successful interactive
+   * `acquireToken`, one token per set, e.g. one set per downstream API. They are acquired in
+   * parallel and in the background, so later `acquireTokenSilent` calls for them return quickly.
+   * Can be overridden per call with `MSALInteractiveParams.prefetchScopes`.
+   * @platform android
+   */
+  prefetchScopes?: string[][];
+  /**
+   * Options for persisting the most recent access tokens, for `getTokenSnapshot`
+   * @platform android
+   */
+  tokenSnapshot?: MSALTokenSnapshotOptions;
+  /**
+   * Options for retrying silent token requests that failed with a transient error
+   * @platform android
+   */
+  retry?: MSALRetryOptions;
+  /**
+   * Options for failing silent token requests fast while an authority keeps failing
+   * @platform android
+   */
+  circuitBreaker?: MSALCircuitBreakerOptions;
+}
+
+export interface MSALRetryOptions {
+  /**
+   * Whether silent token requests are retried natively when they fail with a transient error:
+   * throttling (HTTP 429), server errors (HTTP 5xx) and network errors. Other errors, such as
+   * those requiring interaction, are never retried. Identical requests made while waiting for a
+   * retry wait for its result. true by default.
+   */
+  enabled?: boolean;
+  /**
+   * Maximum number of attempts, including the first one. 3 by default.
+   */
+  maxAttempts?: number;
+  /**
+   * Delay before the first retry. The delay doubles with each further retry, and a random part
+   * of up to half of it is subtracted. 500 by default.
+   */
+  baseDelayMs?: number;
+  /**
+   * Upper bound of the delay between retries. 8000 by default.
+   */
+  maxDelayMs?: number;
+}
+
+export interface MSALCircuitBreakerOptions {
+  /**
+   * Whether silent token requests to an authority fail fast, with the error code `circuit_open`,
+   * after it failed with `failureThreshold` transient errors in a row. After `openDurationSeconds`
+   * a single request is let through, which closes the circuit again if it succeeds.
+   * true by default.
+   */
+  enabled?: boolean;
+  /**
+   * Number of consecutive transient errors after which requests fail fast. 5 by default.
+   */
+  failureThreshold?: number;
+  /**
+   * How long requests fail fast before the authority is tried again. 30 by default.
+   */
+  openDurationSeconds?: number;
+}
+
+export interface MSALAccountChanges {
+  /**
+   * Token to pass to the next `getAccountsSince` call
+   */
+  changeToken: string;
+  /**
+   * Whether the changes couldn't be determined, so `added` holds all accounts and any accounts
+   * known from before should be discarded
+   */
+  reset: boolean;
+  added: MSALAccount[];
+  updated: MSALAccount[];
+  /**
+   * Identifiers of the removed accounts
+   */
+  removed: string[];
+}
+
+export interface MSALAccountsPage {
+  accounts: MSALAccount[];
+  /**
+   * Cursor to pass to the next `getAccountsPage` call, undefined after the last page
+   */
+  nextCursor?: string;
+}
+
+export interface MSALStreamAccountsOptions {
+  /**
+   * Maximum number of accounts per chunk. 20 by default.
+   */
+  chunkSize?: number;
+  /**
+   * Optional subset of account fields to return. Applies on Android only.
+   */
+  fields?: MSALAccountField[];
+}
+
+export interface MSALTokenClaimsOptions {
+  /**
+   * Scopes of the access token whose claims to return. If not included, the claims of the id
+   * token are returned.
+   */
+  scopes?: string[];
+  /**
+   * The authority the access token was acquired from. If not included, authority from
+   * MSALConfiguration will be used.
+   */
+  authority?: string;
+}
+
+export type MSALClaimValue = string | number | boolean | null | MSALClaimValue[] | { [key: string]: MSALClaimValue };
+
+export type MSALTokenClaims = Record<string, MSALClaimValue>;
+
+export interface MSALTokenSnapshotOptions {
+  /**
+   * Whether acquired access tokens are written to an encrypted snapshot on the device. The key
+   * is kept in the AndroidKeyStore. Tokens are kept until they expire, or until their account is
+   * removed. false by default.
+   */
+  enabled?: boolean;
+}
+
+export interface MSALTokenSnapshot {
+  accessToken: string;
+  /**
+   * When the access token expires, in seconds since the epoch
+   */
+  expiresOn: number;
+  scopes: string[];
+  authority: string;
+  tenantId?: string;
+}
+
+export interface MSALTokenCacheOptions {
+  /**
+   * Whether still-valid access tokens are served from memory by `acquireTokenSilent`.
+   * true by default.
+   */
+  enabled?: boolean;
+  /**
+   * Maximum number of tokens to keep. The least recently used token is evicted first.
+   * 64 by default.
+   */
+  maxEntries?: number;
+  /**
+   * A cached token is not returned if it expires within this many seconds.
+   * 300 by default.
+   */
+  expirationMarginSeconds?: number;
+}
+
+export interface MSALTokenRefreshOptions {
+  /**
+   * Whether access tokens acquired through this library are silently renewed before they expire,
+   * so that `acquireTokenSilent` doesn't have to wait for the network. Renewals are paused while
+   * the app is in the background.
+   * false by default.
+   */
+  enabled?: boolean;
+  /**
+   * How many seconds before expiration a token is renewed.
+   * 600 by default.
+   */
+  leadTimeSeconds?: number;
+  /**
+   * Renewals are spread out by a random delay of up to this many seconds, so that many tokens
+   * aren't renewed at once.
+   * 60 by default.
+   */
+  jitterSeconds?: number;
+}
+
+export interface MSALMetricsOptions {
+  /**
+   * Whether metrics are recorded.
+   * true by default.
+   */
+  enabled?: boolean;
+  /**
+   * If set, the recorded metrics are emitted every this many seconds as a `MSAL_METRICS_EVENT`
+   * event, which can be subscribed to with `DeviceEventEmitter.addListener`.
+   * Not set by default.
+   */
+  eventIntervalSeconds?: number;
+  /**
+   * Whether native calls are recorded as android.os.Trace sections, so they show up in systrace
+   * and Perfetto traces. Each call is an async slice labeled with its method and `requestId`,
+   * from when it reaches native code until it settles, with sections for its phases, e.g.
+   * building the config or converting results. Async slices need Android 10.
+   * false by default.
+   * @platform android
+   */
+  trace?: boolean;
+}
+
+/**
+ * Name of the event periodically emitted with MSALMetrics when `metrics.eventIntervalSeconds` is set
+ */
+export const MSAL_METRICS_EVENT = 'RNMSALMetrics';
+
+/**
+ * Name of the native event carrying MSALTokenEvents. Use `addTokenEventListener` to subscribe,
+ * since the event is only emitted while listeners are registered through it.
+ */
+export const MSAL_TOKEN_EVENT = 'RNMSALTokenEvent';
+
+/**
+ * Name of the native event carrying the chunks of `streamAccounts`
+ */
+export const MSAL_ACCOUNTS_CHUNK_EVENT = 'RNMSALAccountsChunk';
+
+/**
+ * Default number of accounts per page or chunk of `getAccountsPage` and `streamAccounts`
+ */
+export const MSAL_DEFAULT_ACCOUNTS_PAGE_SIZE = 20;
+
+export interface MSALAccountsChunkEvent {
+  streamId: string;
+  accounts: MSALAccount[];
+  done: boolean;
+}
+
+export interface MSALTokenEvent {
+  /**
+   * - `tokenRefreshed`: a new access token was acquired, by any call or a background renewal
+   * - `refreshFailed`: a silent token acquisition failed, including background renewals
+   * - `accountAdded`: an account signed in interactively that wasn't known from the last account
+   *   lookup
+   * - `accountRemoved`: an account was removed with `removeAccount` or `signOut`
+   */
+  type: 'tokenRefreshed' | 'refreshFailed' | 'accountAdded' | 'accountRemoved';
+  accountIdentifier: string;
+  /**
+   * Identifies the PublicClientApplication instance the event belongs to. Listeners added with
+   * `addTokenEventListener` only receive events of their own instance.
+   */
+  handle: string;
+  /**
+   * The new token, for `tokenRefreshed` and `accountAdded`. Doesn't include `idToken` or the
+   * account's claims.
+   */
+  result?: Omit<MSALResult, 'idToken'>;
+  /**
+   * Why the token acquisition failed, for `refreshFailed`
+   */
+  error?: MSALTokenEventError;
+}
+
+export interface MSALTokenEventError extends MSALError {
+  /**
+   * What the app should do about the error: `uiRequired` needs an interactive sign in, `network`
+   * can be retried once the device is online again, `service` and `client` are errors reported by
+   * the identity service and MSAL respectively.
+   */
+  classification: 'uiRequired' | 'network' | 'service' | 'client' | 'unknown';
+}
+
+export interface MSALSubscription {
+  remove(): void;
+}
+
+export interface MSALMetrics {
+  /**
+   * Metrics per native method, e.g. `acquireTokenSilent`. `tokenRefresh` holds the background
+   * renewals made when `tokenRefresh` is enabled.
+   */
+  methods: Record<string, MSALMethodMetrics>;
+  /**
+   * Event counts: `tokenCacheHits`, `tokenCacheMisses` and `coalescedSilentRequests` (silent
+   * requests that waited for an identical request already in flight)
+   */
+  counters: Record<string, number>;
+}
+
+export interface MSALMethodMetrics {
+  /**
+   * Number of calls that have completed
+   */
+  count: number;
+  /**
+   * Number of calls that failed
+   */
+  errorCount: number;
+  /**
+   * Number of calls that failed because user interaction is required, i.e. where a silent call
+   * has to fall back to an interactive one
+   */
+  uiRequiredCount: number;
+  /**
+   * Number of failed calls by MSAL error code
+   */
+  errorsByCode: Record<string, number>;
+  /**
+   * Latency percentiles over the most recent calls, in milliseconds
+   */
+  latencyMs: {
+    p50: number;
+    p95: number;
+    p99: number;
+    max: number;
+  };
 }
 
 export interface MSALAndroidConfigOptions {
@@ -140,6 +610,29 @@ export interface MSALInteractiveParams {
    * authorizing an end user.
    */
   webviewParameters?: MSALWebviewParams;
+  /**
+   * Subset of result fields to return, to keep results small when only e.g. the access token
+   * is needed. All fields are returned by default.
+   * @platform android
+   */
+  fields?: MSALResultField[];
+  /**
+   * Scope sets to acquire tokens for silently once this call succeeds. The returned promise
+   * doesn't wait for them. Defaults to `MSALConfiguration.prefetchScopes`.
+   * @platform android
+   */
+  prefetchScopes?: string[][];
+  /**
+   * Reject with the error code `timeout` if the call hasn't completed after this many
+   * milliseconds. A result that arrives later is discarded. No deadline by default.
+   * @platform android
+   */
+  timeoutMs?: number;
+  /**
+   * Id with which the call can be cancelled using `cancel`. Must be unique among pending calls.
+   * @platform android
+   */
+  requestId?: string;
 }
 
 /**
@@ -192,8 +685,43 @@ export interface MSALSilentParams {
    * from the service.
    */
   forceRefresh?: boolean;
+  /**
+   * Subset of result fields to return, to keep results small when only e.g. the access token
+   * is needed. All fields are returned by default.
+   * @platform android
+   */
+  fields?: MSALResultField[];
+  /**
+   * Reject with the error code `timeout` if the call hasn't completed after this many
+   * milliseconds. A result that arrives later is discarded. No deadline by default.
+   * @platform android
+   */
+  timeoutMs?: number;
+  /**
+   * Id with which the call can be cancelled using `cancel`. Must be unique among pending calls.
+   * @platform android
+   */
+  requestId?: string;
 }
 
+/**
+ * A field of MSALResult. `account` returns the account without its claims, which must be
+ * requested separately with `account.claims`.
+ */
+export type MSALResultField =
+  | 'accessToken'
+  | 'expiresOn'
+  | 'idToken'
+  | 'scopes'
+  | 'tenantId'
+  | 'account'
+  | 'account.claims';
+
+/**
+ * A field of MSALAccount. The account identifier is always returned.
+ */
+export type MSALAccountField = 'username' | 'tenantId' | 'claims';
+
 export interface MSALSignoutParams {
   /**
    * The account object for which to sign out of.
@@ -239,6 +767,22 @@ export interface MSALResult {
   tenantId?: string;
 }
 
+export interface MSALSilentBatchResult {
+  /**
+   * The result of the silent token acquisition, if it succeeded.
+   */
+  result?: MSALResult;
+  /**
+   * The reason the silent token acquisition failed, if it did.
+   */
+  error?: MSALError;
+}
+
+export interface MSALError {
+  code: string;
+  message: string;
+}
+
 export interface MSALAccount {
   /**
    * Unique identifier for the account.